@@ -1,4 +1,4 @@
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useRef } from "react";
 import {
   Container,
   Row,
@@ -33,6 +33,8 @@ const PurchaseOrderList = () => {
     from: "",
     to: "",
   });
+  // Filtros de la última carga; los eventos en vivo se comparan contra estos
+  const [appliedFilters, setAppliedFilters] = useState({});
 
   const navigate = useNavigate();
 
@@ -52,6 +54,7 @@ const PurchaseOrderList = () => {
         },
         {}
       );
+      setAppliedFilters(cleanFilters);
 
       const response = await purchaseOrderService.getAllOrders(cleanFilters);
       console.log("API Response:", response.data);
@@ -85,6 +88,51 @@ const PurchaseOrderList = () => {
     fetchOrders();
   }, []);
 
+  // Los manejadores de eventos leen los filtros y la recarga vigentes sin reabrir la suscripción
+  const appliedFiltersRef = useRef(appliedFilters);
+  appliedFiltersRef.current = appliedFilters;
+  const fetchOrdersRef = useRef(fetchOrders);
+  fetchOrdersRef.current = fetchOrders;
+
+  // La suscripción solo depende de los filtros que aplica el servidor (estado y moneda):
+  // recargar el listado no cierra ni vuelve a abrir la conexión
+  const eventStatus = appliedFilters.status || "";
+  const eventCurrency = appliedFilters.currency || "";
+
+  // Aplicar los cambios en vivo (SSE) sobre el listado cargado en lugar de volver a pedirlo
+  useEffect(() => {
+    const eventFilters = { status: eventStatus, currency: eventCurrency };
+    const unsubscribe = purchaseOrderService.subscribeToChanges(eventFilters, {
+      created: (order) => {
+        if (matchesFilters(order, appliedFiltersRef.current)) {
+          setOrders((prev) =>
+            prev.some((o) => o.id === order.id) ? prev : [...prev, order]
+          );
+        }
+      },
+      updated: (order) => {
+        setOrders((prev) => {
+          if (!matchesFilters(order, appliedFiltersRef.current)) {
+            return prev.filter((o) => o.id !== order.id);
+          }
+          const index = prev.findIndex((o) => o.id === order.id);
+          if (index === -1) {
+            return [...prev, order];
+          }
+          const next = [...prev];
+          next[index] = order;
+          return next;
+        });
+      },
+      deleted: ({ id }) => {
+        setOrders((prev) => prev.filter((o) => o.id !== id));
+      },
+      // Se perdieron eventos (cola llena o reconexión): recargar el listado
+      reset: () => fetchOrdersRef.current(),
+    });
+    return unsubscribe;
+  }, [eventStatus, eventCurrency]);
+
   // Manejar cambios en filtros
   const handleFilterChange = (key, value) => {
     setFilters((prev) => ({
@@ -124,6 +172,27 @@ const PurchaseOrderList = () => {
     }
   };
 
+  // Verificar si una orden recibida por SSE cumple los filtros aplicados
+  const matchesFilters = (order, applied) => {
+    if (applied.status && order.status !== applied.status) return false;
+    if (applied.currency && order.currency !== applied.currency) return false;
+    if (applied.q) {
+      const q = applied.q.toLowerCase();
+      if (
+        !order.orderNumber?.toLowerCase().includes(q) &&
+        !order.supplierName?.toLowerCase().includes(q)
+      ) {
+        return false;
+      }
+    }
+    const amount = Number(order.totalAmount);
+    if (applied.minTotal && amount < Number(applied.minTotal)) return false;
+    if (applied.maxTotal && amount > Number(applied.maxTotal)) return false;
+    if (applied.from && order.createdAt < applied.from) return false;
+    if (applied.to && order.createdAt > applied.to) return false;
+    return true;
+  };
+
   // Obtener clase CSS para badge de estado
   const getStatusBadgeClass = (status) => {
     const classes = {
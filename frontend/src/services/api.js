@@ -78,6 +78,37 @@ export const purchaseOrderService = {
   // Health check
   healthCheck: () => {
     return apiClient.get('/purchase-orders/health');
+  },
+
+  // Suscribirse a los cambios (SSE). handlers: { created, updated, deleted, reset }
+  // Devuelve una función para cerrar la suscripción
+  subscribeToChanges: (filters = {}, handlers = {}) => {
+    const params = new URLSearchParams();
+    ['status', 'currency'].forEach((key) => {
+      if (filters[key]) {
+        params.append(key, filters[key]);
+      }
+    });
+
+    const source = new EventSource(`${API_BASE_URL}/purchase-orders/events?${params.toString()}`);
+    ['created', 'updated', 'deleted', 'reset'].forEach((type) => {
+      source.addEventListener(type, (event) => {
+        if (handlers[type]) {
+          handlers[type](JSON.parse(event.data));
+        }
+      });
+    });
+
+    // Tras una reconexión pudieron perderse eventos: se pide recargar el listado
+    let connected = false;
+    source.addEventListener('ready', () => {
+      if (connected && handlers.reset) {
+        handlers.reset({ reason: 'reconnected' });
+      }
+      connected = true;
+    });
+
+    return () => source.close();
   }
 };
 
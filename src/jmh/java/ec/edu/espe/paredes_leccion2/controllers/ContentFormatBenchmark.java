@@ -0,0 +1,89 @@
+package ec.edu.espe.paredes_leccion2.controllers;
+
+import ec.edu.espe.paredes_leccion2.models.dto.AppliedFilters;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderListResponse;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialización de la respuesta del listado con N órdenes en cada formato negociable:
+ * JSON, JSON comprimido con gzip (como lo envía Tomcat), CBOR y Smile.
+ * El tamaño de cada carga se imprime al preparar el estado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentFormatBenchmark {
+
+    @Param({"50", "500", "5000"})
+    private int orders;
+
+    @Param({"json", "json-gzip", "cbor", "smile"})
+    private String format;
+
+    private final ObjectMapper jsonMapper = JsonMapper.builder().build();
+    private final ObjectMapper cborMapper = CBORMapper.builder().build();
+    private final ObjectMapper smileMapper = SmileMapper.builder().build();
+
+    private PurchaseOrderListResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        OrderStatus[] statuses = OrderStatus.values();
+        List<PurchaseOrderSummary> summaries = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            summaries.add(new PurchaseOrderSummary((long) i + 1, String.format("PO-2025-%06d", i + 1),
+                    "Proveedor Industrial " + (i % 200), statuses[i % statuses.length],
+                    new BigDecimal("1234.56").add(BigDecimal.valueOf(i)),
+                    i % 2 == 0 ? Currency.USD : Currency.EUR,
+                    LocalDateTime.of(2025, 1, 1, 8, 30).plusMinutes(i), LocalDate.of(2030, 1, 1)));
+        }
+        response = new PurchaseOrderListResponse(LocalDateTime.of(2025, 6, 1, 12, 0), 200,
+                "Órdenes recuperadas exitosamente", summaries.size(), summaries,
+                AppliedFilters.of(null, "APPROVED", null, null, null, null, null));
+
+        System.out.printf("%n[%s, %d órdenes] %d bytes%n", format, orders, serialize().length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return switch (format) {
+            case "json" -> jsonMapper.writeValueAsBytes(response);
+            case "json-gzip" -> gzip(jsonMapper.writeValueAsBytes(response));
+            case "cbor" -> cborMapper.writeValueAsBytes(response);
+            case "smile" -> smileMapper.writeValueAsBytes(response);
+            default -> throw new IllegalArgumentException(format);
+        };
+    }
+
+    private byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,86 @@
+package ec.edu.espe.paredes_leccion2.controllers;
+
+import ec.edu.espe.paredes_leccion2.models.dto.AppliedFilters;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderListResponse;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización con Jackson de la respuesta del listado con N órdenes: envoltorio Map con
+ * entidades frente al record tipado con proyecciones que usa el controlador
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseEnvelopeBenchmark {
+
+    @Param({"1", "50", "500"})
+    private int orders;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    private List<PurchaseOrder> data;
+    private List<PurchaseOrderSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        OrderStatus[] statuses = OrderStatus.values();
+        data = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            PurchaseOrder order = new PurchaseOrder(String.format("PO-2025-%06d", i + 1),
+                    "Proveedor Industrial " + i, new BigDecimal("1234.56").add(BigDecimal.valueOf(i)),
+                    i % 2 == 0 ? Currency.USD : Currency.EUR, LocalDate.of(2030, 1, 1));
+            order.setId((long) i + 1);
+            order.setStatus(statuses[i % statuses.length]);
+            order.setCreatedAt(LocalDateTime.of(2025, 1, 1, 8, 30).plusMinutes(i));
+            data.add(order);
+        }
+        summaries = data.stream().map(PurchaseOrderSummary::from).toList();
+    }
+
+    @Benchmark
+    public byte[] listResponse() {
+        PurchaseOrderListResponse response = new PurchaseOrderListResponse(LocalDateTime.now(), 200,
+                "Órdenes recuperadas exitosamente", summaries.size(), summaries,
+                AppliedFilters.of(null, "APPROVED", null, null, null, null, null));
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] mapEnvelope() {
+        // Envoltorio Map con entidades, como se armaba antes la respuesta del listado
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", 200);
+        response.put("message", "Órdenes recuperadas exitosamente");
+        response.put("count", data.size());
+        response.put("data", data);
+
+        Map<String, Object> appliedFilters = new HashMap<>();
+        appliedFilters.put("status", "APPROVED");
+        response.put("appliedFilters", appliedFilters);
+
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,45 @@
+package ec.edu.espe.paredes_leccion2.models.entities;
+
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de crear órdenes (el constructor toma la hora actual para createdAt)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PurchaseOrderConstructionBenchmark {
+
+    private final BigDecimal amount = new BigDecimal("1500.00");
+    private final LocalDate deliveryDate = LocalDate.of(2030, 1, 1);
+    private final PurchaseOrder source = new PurchaseOrder("PO-2025-000001", "ACME Corporation",
+            amount, Currency.USD, deliveryDate);
+
+    @Benchmark
+    public PurchaseOrder defaultConstructor() {
+        return new PurchaseOrder();
+    }
+
+    @Benchmark
+    public PurchaseOrder fieldsConstructor() {
+        return new PurchaseOrder("PO-2025-000001", "ACME Corporation", amount, Currency.USD, deliveryDate);
+    }
+
+    /**
+     * Copia usada por la caché de órdenes
+     */
+    @Benchmark
+    public PurchaseOrder copyConstructor() {
+        return new PurchaseOrder(source);
+    }
+}
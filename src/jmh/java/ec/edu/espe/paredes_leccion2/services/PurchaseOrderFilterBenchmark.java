@@ -0,0 +1,71 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de convertir y validar los parámetros de filtrado del listado
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PurchaseOrderFilterBenchmark {
+
+    private final PurchaseOrderService service = new PurchaseOrderService();
+
+    private final String status = "approved";
+    private final String invalidStatus = "shipped";
+    private final String from = "2025-01-01T00:00:00";
+    private final String to = "2025-12-31T23:59:59";
+    private final BigDecimal minTotal = new BigDecimal("100.00");
+    private final BigDecimal maxTotal = new BigDecimal("5000.00");
+
+    @Benchmark
+    public OrderStatus validateAndParseStatus() {
+        return service.validateAndParseStatus(status);
+    }
+
+    /**
+     * Estado no válido: incluye el costo de crear la excepción
+     */
+    @Benchmark
+    public Object validateAndParseInvalidStatus() {
+        try {
+            return service.validateAndParseStatus(invalidStatus);
+        } catch (ValidationException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public LocalDateTime parseDateTime() {
+        return service.parseDateTime(from, "from");
+    }
+
+    @Benchmark
+    public BigDecimal validateAmounts() {
+        service.validateAmounts(minTotal, maxTotal);
+        return minTotal;
+    }
+
+    @Benchmark
+    public PurchaseOrderFilter buildFilterAllParameters() {
+        return service.buildFilter(" acme ", status, "usd", minTotal, maxTotal, from, to);
+    }
+
+    @Benchmark
+    public PurchaseOrderFilter buildFilterNoParameters() {
+        return service.buildFilter(null, null, null, null, null, null, null);
+    }
+}
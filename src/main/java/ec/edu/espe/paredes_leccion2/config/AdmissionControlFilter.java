@@ -0,0 +1,174 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Control de admisión por cliente para la API de órdenes.
+ *
+ * Cada cliente, identificado por su dirección remota, tiene una {@link TokenBucket} para
+ * lecturas (GET/HEAD) y otra para escrituras, con presupuestos independientes. La cabecera
+ * app.admission.client-header solo se usa cuando la solicitud llega desde un proxy de
+ * app.admission.trusted-proxies, que debe fijarla él mismo: si se aceptara de cualquier
+ * cliente, bastaría con rotarla para obtener ráfagas nuevas (y desalojar las cubetas de los
+ * demás) o con copiar la de otro cliente para agotar su presupuesto.
+ *
+ * Si la cubeta está vacía se responde de inmediato 429 con Retry-After, antes de ocupar un
+ * permiso de {@link DatabaseConcurrencyFilter} o una conexión, de modo que un cliente en
+ * ráfaga no aumenta la latencia de los demás. Como el filtro se ejecuta antes de Spring MVC, el
+ * 429 lleva las cabeceras CORS de {@link WebConfig#apiCorsConfiguration()} para que el
+ * navegador lo entregue al frontend. Se conservan hasta app.admission.max-clients clientes;
+ * las cubetas sin uso se descartan.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/v1/purchase-orders";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.admission.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.admission.client-header:X-Client-Id}")
+    private String clientHeader;
+
+    @Value("${app.admission.trusted-proxies:}")
+    private Set<String> trustedProxies;
+
+    @Value("${app.admission.read.rate:100}")
+    private double readRate;
+
+    @Value("${app.admission.read.burst:200}")
+    private int readBurst;
+
+    @Value("${app.admission.write.rate:20}")
+    private double writeRate;
+
+    @Value("${app.admission.write.burst:50}")
+    private int writeBurst;
+
+    @Value("${app.admission.max-clients:10000}")
+    private long maxClients;
+
+    private final CorsProcessor corsProcessor = new DefaultCorsProcessor();
+    private final CorsConfiguration corsConfiguration = WebConfig.apiCorsConfiguration();
+
+    private Cache<String, ClientBuckets> clients;
+    private Counter readsShed;
+    private Counter writesShed;
+
+    @PostConstruct
+    void init() {
+        // Una cubeta sin uso durante más tiempo del que tarda en llenarse ya no limita nada
+        Duration idle = Duration.ofSeconds((long) Math.ceil(Math.max(readBurst / readRate, writeBurst / writeRate)) + 1);
+        clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idle)
+                .build();
+
+        readsShed = shedCounter("read");
+        writesShed = shedCounter("write");
+        Gauge.builder("admission.clients", clients, Cache::estimatedSize)
+                .description("Clientes con cubetas de admisión activas")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !path.startsWith(API_PATH) || path.equals(API_PATH + "/health")
+                || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long now = System.nanoTime();
+        ClientBuckets buckets = clients.get(clientKey(request), key -> new ClientBuckets(
+                new TokenBucket(readRate, readBurst, now), new TokenBucket(writeRate, writeBurst, now)));
+
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        long wait = (read ? buckets.reads() : buckets.writes()).tryAcquire(now);
+        if (wait > 0) {
+            (read ? readsShed : writesShed).increment();
+            reject(request, response, wait);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    String clientKey(HttpServletRequest request) {
+        String remote = request.getRemoteAddr();
+        if (trustedProxies.contains(remote)) {
+            String client = request.getHeader(clientHeader);
+            if (StringUtils.hasText(client)) {
+                return "id:" + client.trim();
+            }
+        }
+        return "ip:" + remote;
+    }
+
+    private Counter shedCounter(String kind) {
+        return Counter.builder("admission.rejected")
+                .description("Solicitudes rechazadas con 429 por superar el presupuesto del cliente")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Demasiadas solicitudes, intente nuevamente en " + retryAfter + " s");
+
+        corsProcessor.processRequest(corsConfiguration, request, response);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private record ClientBuckets(TokenBucket reads, TokenBucket writes) {
+    }
+}
@@ -0,0 +1,124 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita cuántas solicitudes a la API que usan la base de datos se atienden a la vez.
+ *
+ * Con hilos virtuales el pool de hilos de Tomcat ya no acota la concurrencia: este semáforo
+ * toma ese papel, de modo que las solicitudes en exceso esperan aquí (sin ocupar un hilo de
+ * plataforma) en lugar de acumularse frente al pool de conexiones. Si no se obtiene un permiso
+ * dentro de app.db-concurrency.acquire-timeout se responde 503 con Retry-After. Los endpoints
+ * que se responden desde memoria no pasan por el semáforo. /generate-order-number sí pasa:
+ * aunque casi siempre entrega el número desde memoria, al agotarse un bloque reserva otro con
+ * SELECT ... FOR UPDATE y ocupa una conexión.
+ */
+@Component
+public class DatabaseConcurrencyFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/v1/purchase-orders";
+    private static final Set<String> IN_MEMORY_PATHS = Set.of(
+            API_PATH + "/health",
+            API_PATH + "/stats",
+            API_PATH + "/cache/stats",
+            API_PATH + "/events");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.db-concurrency.enabled:false}")
+    private boolean enabled;
+
+    // Por defecto, el tamaño del pool de conexiones (10 es el valor por defecto de Hikari)
+    @Value("${app.db-concurrency.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int maxConcurrent;
+
+    @Value("${app.db-concurrency.acquire-timeout:2s}")
+    private Duration acquireTimeout;
+
+    private Semaphore permits;
+    private Counter rejected;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrent, true);
+        rejected = Counter.builder("db.concurrency.rejected")
+                .description("Solicitudes rechazadas por no obtener un permiso de base de datos a tiempo")
+                .register(meterRegistry);
+        Gauge.builder("db.concurrency.available", permits, Semaphore::availablePermits)
+                .description("Permisos de base de datos disponibles")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || !path.startsWith(API_PATH) || IN_MEMORY_PATHS.contains(path)
+                || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejected.increment();
+            reject(response);
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        Map<String, Object> body = new HashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        body.put("error", "Service Unavailable");
+        body.put("message", "El servicio está saturado, intente nuevamente");
+
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,73 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Lectura de las escrituras propias con réplicas configuradas.
+ *
+ * La primera transacción de escritura de una solicitud fija sus lecturas siguientes al
+ * primario y deja la cookie rw-primary durante app.datasource.read-your-writes; mientras el
+ * cliente la envíe, sus lecturas también van al primario, de modo que no ve datos anteriores
+ * a su propia escritura aunque las réplicas tengan retraso. Con 0 se desactiva.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "rw-primary";
+
+    @Value("${app.datasource.replicas.urls:}")
+    private String replicaUrls;
+
+    @Value("${app.datasource.read-your-writes:5s}")
+    private Duration window;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return replicaUrls.isBlank() || window.isZero() || window.isNegative();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        ReplicaRoutingDataSource.openScope(hasCookie(request), () -> {
+            if (!response.isCommitted()) {
+                response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, "1")
+                        .path("/")
+                        .maxAge(window)
+                        .httpOnly(true)
+                        .sameSite("Lax")
+                        .build()
+                        .toString());
+            }
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.closeScope();
+        }
+    }
+
+    private boolean hasCookie(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
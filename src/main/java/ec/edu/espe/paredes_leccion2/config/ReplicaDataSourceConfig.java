@@ -0,0 +1,133 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import ec.edu.espe.paredes_leccion2.repositories.ReplicaRead;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Separa lecturas y escrituras cuando hay réplicas configuradas (app.datasource.replicas.urls).
+ *
+ * Reemplaza el DataSource de Spring Boot por un {@link ReplicaRoutingDataSource} con un pool
+ * para el primario (spring.datasource.*) y uno por réplica; todos usan la configuración
+ * spring.datasource.hikari.* y publican sus métricas hikaricp.* con el nombre del pool.
+ *
+ * La condición se evalúa al procesar AOT: con el perfil Maven aot, las réplicas deben estar
+ * configuradas al compilar (Dockerfile.aot recibe DB_REPLICA_URLS como ARG).
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replicas.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${app.datasource.replicas.urls}")
+    private String[] replicaUrls;
+
+    @Value("${app.datasource.replicas.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replicas.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+
+    /**
+     * Marca en el hilo actual las invocaciones a métodos {@link ReplicaRead} de los repositorios
+     */
+    @Bean
+    public static BeanPostProcessor replicaReadPostProcessor() {
+        MethodInterceptor replicaRead = invocation -> {
+            if (!AnnotatedElementUtils.hasAnnotation(invocation.getMethod(), ReplicaRead.class)) {
+                return invocation.proceed();
+            }
+            boolean previous = ReplicaRoutingDataSource.enterReplicaRead();
+            try {
+                return invocation.proceed();
+            } finally {
+                ReplicaRoutingDataSource.restoreReplicaRead(previous);
+            }
+        };
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(replicaRead)));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        HikariDataSource primary = pool(properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build(), ReplicaRoutingDataSource.PRIMARY, meterRegistry);
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.length; i++) {
+            replicas.add(pool(properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls[i].trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build(), "replica-" + (i + 1), meterRegistry));
+        }
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    /**
+     * DataSource que usan JPA y JDBC: la conexión física se pide en la primera sentencia
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Avisa de cada transacción de escritura confirmada para la lectura de escrituras propias
+     * (Spring Boot registra los TransactionExecutionListener en el gestor de transacciones)
+     */
+    @Bean
+    public TransactionExecutionListener readYourWritesListener() {
+        return new TransactionExecutionListener() {
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                if (commitFailure == null && !transaction.isReadOnly()) {
+                    ReplicaRoutingDataSource.written();
+                }
+            }
+        };
+    }
+
+    private HikariDataSource pool(HikariDataSource pool, String name, MeterRegistry meterRegistry) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+}
@@ -0,0 +1,133 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import ec.edu.espe.paredes_leccion2.repositories.ReplicaRead;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource que envía a las réplicas (por turnos) las consultas de repositorio marcadas con
+ * {@link ReplicaRead} que se ejecutan en una transacción de solo lectura, y todo lo demás al
+ * primario: escrituras, sentencias fuera de una transacción y las lecturas que llenan cachés,
+ * índices o estadísticas en memoria, que no deben guardar datos de una réplica con retraso.
+ *
+ * El destino se decide al pedir la conexión física, por eso se usa detrás de un
+ * {@link LazyConnectionDataSourceProxy}: la conexión se obtiene en la primera sentencia, cuando
+ * la transacción ya está marcada como de solo lectura y el método marcado está en curso.
+ *
+ * Lectura de las escrituras propias: dentro de un alcance abierto con {@link #openScope}
+ * (una solicitud HTTP), después de confirmar una transacción de escritura ({@link #written})
+ * las lecturas también van al primario; el alcance puede abrirse ya fijado al primario por una
+ * escritura anterior del mismo cliente.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        pools.add(primary);
+        for (HikariDataSource replica : replicas) {
+            targets.put(replica.getPoolName(), replica);
+            replicaKeys.add(replica.getPoolName());
+            pools.add(replica);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (REPLICA_READ.get() == null || replicaKeys.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Scope scope = SCOPE.get();
+        if (scope != null && scope.pinned) {
+            return PRIMARY;
+        }
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+
+    /**
+     * Indica si el hilo actual está ejecutando un método {@link ReplicaRead}
+     *
+     * @return el valor anterior, que debe restaurarse con {@link #restoreReplicaRead}
+     */
+    static boolean enterReplicaRead() {
+        boolean previous = REPLICA_READ.get() != null;
+        REPLICA_READ.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restoreReplicaRead(boolean previous) {
+        if (!previous) {
+            REPLICA_READ.remove();
+        }
+    }
+
+    /**
+     * Abre el alcance de lectura de escrituras propias del hilo actual
+     *
+     * @param pinned       si las lecturas deben ir al primario desde el inicio
+     * @param onFirstWrite se ejecuta al confirmar la primera transacción de escritura del alcance
+     */
+    static void openScope(boolean pinned, Runnable onFirstWrite) {
+        SCOPE.set(new Scope(pinned, onFirstWrite));
+    }
+
+    static void closeScope() {
+        SCOPE.remove();
+    }
+
+    /**
+     * Registra una transacción de escritura confirmada en el alcance del hilo actual, si lo hay
+     */
+    static void written() {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            scope.written();
+        }
+    }
+
+    @Override
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private static final class Scope {
+
+        private final Runnable onFirstWrite;
+        private boolean pinned;
+        private boolean written;
+
+        Scope(boolean pinned, Runnable onFirstWrite) {
+            this.pinned = pinned;
+            this.onFirstWrite = onFirstWrite;
+        }
+
+        void written() {
+            pinned = true;
+            if (!written) {
+                written = true;
+                onFirstWrite.run();
+            }
+        }
+    }
+}
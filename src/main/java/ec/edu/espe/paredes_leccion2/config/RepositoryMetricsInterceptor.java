@@ -0,0 +1,121 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Mide cada método de un repositorio: tiempo de ejecución (repository.invocations, por
+ * resultado) y filas devueltas (repository.rows). Para los métodos que devuelven int o long
+ * (UPDATE/DELETE con @Modifying, conteos) se registra ese número; los que devuelven boolean
+ * (existsBy...) no registran filas.
+ *
+ * Los medidores de cada método se registran en la primera llamada y luego se reutilizan,
+ * de modo que registrar una invocación no construye etiquetas ni asigna memoria (salvo
+ * para métodos que devuelven Stream, cuyas filas se cuentan al cerrarlo).
+ */
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final Supplier<MeterRegistry> registry;
+    private final String repository;
+    private final Map<Method, MethodMeters> meters = new ConcurrentHashMap<>();
+
+    public RepositoryMetricsInterceptor(Supplier<MeterRegistry> registry, String repository) {
+        this.registry = registry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        MethodMeters methodMeters = meters.get(method);
+        if (methodMeters == null) {
+            methodMeters = meters.computeIfAbsent(method, this::register);
+        }
+
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            methodMeters.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        methodMeters.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (method.getReturnType() == void.class || result instanceof Boolean) {
+            return result;
+        }
+        if (result instanceof Stream<?> stream) {
+            return countOnClose(stream, methodMeters.rows);
+        }
+        methodMeters.rows.record(rows(result));
+        return result;
+    }
+
+    private MethodMeters register(Method method) {
+        MeterRegistry meterRegistry = registry.get();
+        return new MethodMeters(
+                timer(meterRegistry, method, "SUCCESS"),
+                timer(meterRegistry, method, "ERROR"),
+                DistributionSummary.builder("repository.rows")
+                        .description("Filas devueltas por invocación de un método de repositorio")
+                        .tag("repository", repository)
+                        .tag("method", method.getName())
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+    }
+
+    private Timer timer(MeterRegistry meterRegistry, Method method, String outcome) {
+        return Timer.builder("repository.invocations")
+                .description("Duración de las invocaciones a métodos de repositorio")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        return 1;
+    }
+
+    private static Stream<?> countOnClose(Stream<?> stream, DistributionSummary rows) {
+        long[] count = new long[1];
+        // filter y no peek: count() sobre un stream de tamaño conocido omite peek y no recorre las filas
+        return stream.filter(row -> {
+            count[0]++;
+            return true;
+        }).onClose(() -> rows.record(count[0]));
+    }
+
+    private record MethodMeters(Timer success, Timer error, DistributionSummary rows) {
+    }
+}
@@ -0,0 +1,40 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubeta de tokens sin bloqueos (GCRA): todo su estado es el instante teórico en que la cubeta
+ * vuelve a estar llena, que se avanza con compareAndSet. Admite ráfagas de hasta burst
+ * solicitudes y luego una cada 1/rate segundos.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival;
+    private final long interval;
+    private final long tolerance;
+
+    TokenBucket(double ratePerSecond, int burst, long now) {
+        this.interval = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.tolerance = interval * Math.max(1, burst);
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Toma un token si hay uno disponible en el instante now (System.nanoTime)
+     *
+     * @return 0 si se admitió, o los nanosegundos que faltan para que haya un token
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package ec.edu.espe.paredes_leccion2.config;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.util.List;
 
 /**
  * Configuración web para CORS y otras configuraciones HTTP
@@ -10,12 +22,46 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private CBORMapper cborMapper;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
-        registry.addMapping("/api/**")
-                .allowedOrigins("*")
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                .allowedHeaders("*")
-                .maxAge(3600);
+        registry.addMapping("/api/**").combine(apiCorsConfiguration());
+    }
+
+    /**
+     * CORS de la API. También la aplica {@link AdmissionControlFilter} a los 429 que responde
+     * antes de llegar a Spring MVC
+     */
+    static CorsConfiguration apiCorsConfiguration() {
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowedOrigins(List.of("*"));
+        config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+        config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of("ETag", "Location", "Retry-After"));
+        config.setMaxAge(3600L);
+        return config;
+    }
+
+    /**
+     * JSON y Smile se registran por defecto; CBOR se registra con el mapper que configura
+     * Spring Boot (spring.jackson.cbor.*) en lugar de uno sin configurar
+     */
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // La representación depende de Accept (JSON, CBOR o Smile): las cachés HTTP deben distinguirla
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/**");
     }
 }
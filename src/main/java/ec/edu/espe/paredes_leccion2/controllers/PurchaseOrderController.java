@@ -1,14 +1,47 @@
 package ec.edu.espe.paredes_leccion2.controllers;
 
+import ec.edu.espe.paredes_leccion2.exceptions.PreconditionFailedException;
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.AppliedFilters;
+import ec.edu.espe.paredes_leccion2.models.dto.BatchItemResult;
+import ec.edu.espe.paredes_leccion2.models.dto.BulkDeleteRequest;
+import ec.edu.espe.paredes_leccion2.models.dto.CursorPage;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderListResponse;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderPatch;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderPageResponse;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.dto.StatusTransitionRequest;
+import ec.edu.espe.paredes_leccion2.models.dto.StatusTransitionResult;
 import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.ExportFormat;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderCache;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderColumnStore;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderEventPublisher;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderExportService;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderImportJob;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderImportService;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderQueryCache;
 import ec.edu.espe.paredes_leccion2.services.PurchaseOrderService;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderStats;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -16,15 +49,46 @@ import java.util.Map;
 
 /**
  * Controlador REST para la gestión de órdenes de compra
+ *
+ * Los tipos que se envían dentro de los mapas de respuesta (y en los eventos SSE) se registran
+ * para serialización en la imagen nativa, donde no se deducen de la firma de los métodos.
  */
 @RestController
+@RegisterReflectionForBinding({PurchaseOrder.class, PurchaseOrderSummary.class, BatchItemResult.class,
+        StatusTransitionResult.class})
 @RequestMapping("/api/v1/purchase-orders")
 @CrossOrigin(origins = {"http://localhost:3000", "http://frontend:3000"})
 public class PurchaseOrderController {
 
+    private static final String LIST_MESSAGE = "Órdenes recuperadas exitosamente";
+
+    // Distingue los ETag de listados emitidos por esta instancia (el contador es local)
+    private static final String INSTANCE_TAG = Long.toString(System.currentTimeMillis(), 36);
+
     @Autowired
     private PurchaseOrderService service;
 
+    @Autowired
+    private PurchaseOrderExportService exportService;
+
+    @Autowired
+    private PurchaseOrderImportService importService;
+
+    @Autowired
+    private PurchaseOrderEventPublisher eventPublisher;
+
+    @Autowired
+    private PurchaseOrderCache cache;
+
+    @Autowired
+    private PurchaseOrderQueryCache queryCache;
+
+    @Autowired
+    private PurchaseOrderStats stats;
+
+    @Autowired
+    private PurchaseOrderColumnStore columnStore;
+
     /**
      * Endpoint: POST /api/v1/purchase-orders
      * Crea una nueva orden de compra
@@ -44,6 +108,32 @@ public class PurchaseOrderController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    /**
+     * Endpoint: POST /api/v1/purchase-orders/batch
+     * Crea un lote de órdenes de compra con inserciones JDBC en batch
+     *
+     * Cada elemento se valida de forma independiente; la respuesta incluye el resultado de
+     * cada uno (CREATED con su id o FAILED con sus errores) en el mismo orden del lote.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createPurchaseOrdersBatch(
+            @RequestBody List<PurchaseOrder> purchaseOrders) {
+
+        List<BatchItemResult> results = service.saveAll(purchaseOrders);
+        long created = results.stream().filter(BatchItemResult::isCreated).count();
+        HttpStatus status = created > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", status.value());
+        response.put("message", "Lote procesado: " + created + " de " + results.size() + " órdenes creadas");
+        response.put("created", created);
+        response.put("failed", results.size() - created);
+        response.put("results", results);
+
+        return new ResponseEntity<>(response, status);
+    }
+
     /**
      * Endpoint: GET /api/v1/purchase-orders
      * Obtiene todas las órdenes con filtros opcionales
@@ -56,52 +146,101 @@ public class PurchaseOrderController {
      * - maxTotal: monto máximo (debe ser >= 0)
      * - from: fecha y hora desde (formato: yyyy-MM-ddTHH:mm:ss)
      * - to: fecha y hora hasta (formato: yyyy-MM-ddTHH:mm:ss)
+     *
+     * Paginación por cursor (se activa al enviar cualquiera de estos parámetros):
+     * - limit: tamaño de página (1..500, por defecto 50)
+     * - cursor: valor nextCursor devuelto por la página anterior
+     * - sort: campo de ordenamiento (createdAt, totalAmount, id; por defecto createdAt)
+     * - direction: asc o desc (por defecto desc)
+     *
+     * Responde con un ETag débil derivado del filtro y del contador de escrituras; con
+     * If-None-Match vigente devuelve 304 sin consultar la base de datos.
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllPurchaseOrders(
+    public ResponseEntity<?> getAllPurchaseOrders(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String currency,
             @RequestParam(required = false) BigDecimal minTotal,
             @RequestParam(required = false) BigDecimal maxTotal,
             @RequestParam(required = false) String from,
-            @RequestParam(required = false) String to) {
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            WebRequest request) {
+
+        PurchaseOrderFilter filter = service.buildFilter(q, status, currency, minTotal, maxTotal, from, to);
+        boolean paged = limit != null || cursor != null || sort != null || direction != null;
+        // Los parámetros de la página se validan antes de poder responder 304
+        PurchaseOrderService.PageParameters pageParameters = paged
+                ? service.validatePage(filter, sort, direction, cursor, limit) : null;
+        if (request.checkNotModified(listETag(filter, pageParameters))) {
+            return null;
+        }
 
-        List<PurchaseOrder> orders = service.findAllWithFilters(
-                q, status, currency, minTotal, maxTotal, from, to);
+        // Información de filtros aplicados (se omite si no hay ninguno)
+        AppliedFilters appliedFilters = AppliedFilters.of(q, status, currency, minTotal, maxTotal, from, to);
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("timestamp", LocalDateTime.now());
-        response.put("status", HttpStatus.OK.value());
-        response.put("message", "Órdenes recuperadas exitosamente");
-        response.put("count", orders.size());
-        response.put("data", orders);
-
-        // Agregar información de filtros aplicados
-        Map<String, Object> appliedFilters = new HashMap<>();
-        if (q != null && !q.trim().isEmpty()) appliedFilters.put("q", q);
-        if (status != null) appliedFilters.put("status", status);
-        if (currency != null) appliedFilters.put("currency", currency);
-        if (minTotal != null) appliedFilters.put("minTotal", minTotal);
-        if (maxTotal != null) appliedFilters.put("maxTotal", maxTotal);
-        if (from != null) appliedFilters.put("from", from);
-        if (to != null) appliedFilters.put("to", to);
-
-        if (!appliedFilters.isEmpty()) {
-            response.put("appliedFilters", appliedFilters);
+        if (paged) {
+            CursorPage<PurchaseOrderSummary> page = service.findPage(filter, sort, direction, cursor, limit);
+            return ResponseEntity.ok(new PurchaseOrderPageResponse(LocalDateTime.now(), HttpStatus.OK.value(),
+                    LIST_MESSAGE, page.items().size(), page.items(), page.nextCursor(), page.hasMore(),
+                    appliedFilters));
         }
 
-        return ResponseEntity.ok(response);
+        List<PurchaseOrderSummary> orders = service.findAllWithFilters(filter);
+        return ResponseEntity.ok(new PurchaseOrderListResponse(LocalDateTime.now(), HttpStatus.OK.value(),
+                LIST_MESSAGE, orders.size(), orders, appliedFilters));
+    }
+
+    /**
+     * Endpoint: GET /api/v1/purchase-orders/export
+     * Exporta en streaming todas las órdenes que cumplen los filtros
+     *
+     * Acepta los mismos filtros que el listado y el parámetro format (ndjson, csv).
+     * Las filas se escriben directamente en la respuesta a medida que se leen de la base de datos.
+     */
+    @GetMapping("/export")
+    public void exportPurchaseOrders(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) BigDecimal minTotal,
+            @RequestParam(required = false) BigDecimal maxTotal,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String format,
+            HttpServletResponse response) throws IOException {
+
+        // Validar todo antes de empezar a escribir la respuesta
+        PurchaseOrderFilter filter = service.buildFilter(q, status, currency, minTotal, maxTotal, from, to);
+        ExportFormat exportFormat = exportService.parseFormat(format);
+
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"purchase-orders." + exportFormat.getExtension() + "\"");
+
+        exportService.export(filter, exportFormat, response.getOutputStream());
     }
 
     /**
      * Endpoint: GET /api/v1/purchase-orders/{id}
      * Obtiene una orden específica por su ID
+     *
+     * Responde con un ETag fuerte basado en la versión de la orden; con If-None-Match
+     * vigente devuelve 304 sin cuerpo.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getPurchaseOrderById(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> getPurchaseOrderById(@PathVariable Long id, WebRequest request) {
 
         PurchaseOrder order = service.findById(id);
+        if (request.checkNotModified(orderETag(order))) {
+            return null;
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", LocalDateTime.now());
@@ -115,13 +254,17 @@ public class PurchaseOrderController {
     /**
      * Endpoint: PUT /api/v1/purchase-orders/{id}
      * Actualiza una orden existente
+     *
+     * Con If-Match solo actualiza si la orden sigue en la versión indicada (412 si no).
+     * La respuesta incluye el ETag de la nueva versión.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Map<String, Object>> updatePurchaseOrder(
             @PathVariable Long id,
-            @Valid @RequestBody PurchaseOrder purchaseOrder) {
+            @Valid @RequestBody PurchaseOrder purchaseOrder,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        PurchaseOrder updated = service.update(id, purchaseOrder);
+        PurchaseOrder updated = service.update(id, purchaseOrder, expectedVersion(id, ifMatch));
 
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", LocalDateTime.now());
@@ -129,7 +272,30 @@ public class PurchaseOrderController {
         response.put("message", "Orden actualizada exitosamente");
         response.put("data", updated);
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(orderETag(updated)).body(response);
+    }
+
+    /**
+     * Endpoint: PATCH /api/v1/purchase-orders/{id}
+     * Actualiza solo los campos enviados de una orden existente
+     *
+     * Acepta If-Match igual que PUT; la respuesta incluye el ETag de la nueva versión.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> patchPurchaseOrder(
+            @PathVariable Long id,
+            @RequestBody PurchaseOrderPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        PurchaseOrder patched = service.patch(id, patch, expectedVersion(id, ifMatch));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.OK.value());
+        response.put("message", "Orden actualizada exitosamente");
+        response.put("data", patched);
+
+        return ResponseEntity.ok().eTag(orderETag(patched)).body(response);
     }
 
     /**
@@ -149,6 +315,128 @@ public class PurchaseOrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint: POST /api/v1/purchase-orders/bulk-delete
+     * Elimina en bloque las órdenes de una lista de ids o las que cumplen los filtros
+     * del listado (q, status, currency, minTotal, maxTotal, from, to)
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<Map<String, Object>> bulkDeletePurchaseOrders(@RequestBody BulkDeleteRequest request) {
+
+        PurchaseOrderFilter filter = service.buildFilter(request.q(), request.status(), request.currency(),
+                request.minTotal(), request.maxTotal(), request.from(), request.to());
+        int deleted = service.deleteAll(request.ids(), filter);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.OK.value());
+        response.put("message", deleted + " órdenes eliminadas");
+        response.put("deleted", deleted);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint: POST /api/v1/purchase-orders/bulk-status
+     * Cambia al estado indicado las órdenes de una lista de ids, solo donde la transición está
+     * permitida, y devuelve el resultado de cada id
+     */
+    @PostMapping("/bulk-status")
+    public ResponseEntity<Map<String, Object>> bulkTransitionStatus(@RequestBody StatusTransitionRequest request) {
+
+        List<StatusTransitionResult> results = service.transitionStatus(request.ids(), request.status());
+        long transitioned = results.stream()
+                .filter(result -> StatusTransitionResult.TRANSITIONED.equals(result.outcome()))
+                .count();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.OK.value());
+        response.put("message", transitioned + " de " + results.size() + " órdenes cambiaron a "
+                + request.status().toUpperCase());
+        response.put("transitioned", transitioned);
+        response.put("results", results);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint: POST /api/v1/purchase-orders/import
+     * Inicia la importación en segundo plano de un CSV con el formato de la exportación,
+     * subido como multipart (file) o ubicado en el directorio de importación del servidor (path)
+     *
+     * Responde 202 con el estado de la importación; el progreso y los errores por fila se
+     * consultan en GET /import/{jobId}. Si ya hay app.import.max-concurrent importaciones en
+     * curso y app.import.max-queued en espera responde 503 con Retry-After.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importPurchaseOrders(
+            @RequestParam(required = false) MultipartFile file,
+            @RequestParam(required = false) String path) {
+
+        if ((file == null) == !StringUtils.hasText(path)) {
+            throw new ValidationException("Debe enviar un archivo (file) o una ruta del servidor (path), pero no ambos");
+        }
+        PurchaseOrderImportJob job = file != null
+                ? importService.importUpload(file)
+                : importService.importFile(path);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.ACCEPTED.value());
+        response.put("message", "Importación iniciada");
+        response.put("data", job.snapshot());
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/purchase-orders/import/" + job.getId()))
+                .body(response);
+    }
+
+    /**
+     * Endpoint: GET /api/v1/purchase-orders/import/{jobId}
+     * Obtiene el progreso de una importación; al terminar incluye los errores por fila
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<Map<String, Object>> getImportStatus(@PathVariable String jobId) {
+
+        PurchaseOrderImportJob job = importService.getJob(jobId);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.OK.value());
+        response.put("message", "Importación " + job.getStatus());
+        response.put("data", job.snapshot());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint: GET /api/v1/purchase-orders/events
+     * Flujo Server-Sent Events con las órdenes creadas, actualizadas y eliminadas
+     *
+     * Filtros opcionales: status y currency. Una actualización se envía si la orden cumplía
+     * el filtro antes o lo cumple después. Si el cliente no consume a tiempo recibe un evento
+     * reset y debe volver a cargar el listado. Con app.events.max-subscribers conexiones
+     * abiertas responde 503.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<SseEmitter> streamEvents(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String currency) {
+
+        PurchaseOrderFilter filter = service.buildFilter(null, status, currency, null, null, null, null);
+        SseEmitter emitter = eventPublisher.subscribe(filter.status(), filter.currency());
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
     /**
      * Endpoint: GET /api/v1/purchase-orders/generate-order-number
      * Genera un nuevo número de orden
@@ -167,6 +455,38 @@ public class PurchaseOrderController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint: GET /api/v1/purchase-orders/stats
+     * Conteos y montos totales de órdenes por estado, por moneda y por mes.
+     * Se responde desde contadores en memoria, sin consultar la base de datos.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> orderStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.OK.value());
+        response.put("data", stats.snapshot());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint: GET /api/v1/purchase-orders/cache/stats
+     * Estadísticas de las cachés de órdenes por id y de consultas filtradas
+     * (aciertos, fallos y desalojos) y tamaño del almacén columnar
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("timestamp", LocalDateTime.now());
+        response.put("status", HttpStatus.OK.value());
+        response.put("orders", cache.stats());
+        response.put("queries", queryCache.stats());
+        response.put("columnar", columnStore.stats());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint: GET /api/v1/purchase-orders/health
      * Endpoint de salud para verificar que el servicio está funcionando
@@ -181,4 +501,47 @@ public class PurchaseOrderController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * ETag fuerte de una orden: su versión
+     */
+    private String orderETag(PurchaseOrder order) {
+        return "\"" + order.getVersion() + "\"";
+    }
+
+    /**
+     * ETag débil de un listado: instancia, contador de escrituras, huella del filtro y, en la
+     * paginación por cursor, ordenamiento, cursor y tamaño de página
+     */
+    private String listETag(PurchaseOrderFilter filter, PurchaseOrderService.PageParameters page) {
+        String tag = INSTANCE_TAG + "-" + queryCache.globalVersion() + "-" + Integer.toHexString(filter.fingerprint());
+        if (page != null) {
+            tag += "-p" + Integer.toHexString(page.hashCode());
+        }
+        return "W/\"" + tag + "\"";
+    }
+
+    /**
+     * Versión que exige el encabezado If-Match, o null si no se envió o es *
+     */
+    private Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+
+        PurchaseOrder current = service.findById(id);
+        ETag currentTag = ETag.create(orderETag(current));
+        for (ETag tag : ETag.parse(ifMatch)) {
+            if (tag.isWildcard()) {
+                return null;
+            }
+            if (tag.compare(currentTag, true)) {
+                return current.getVersion();
+            }
+        }
+        // La caché podría tener una versión anterior a la que envió el cliente
+        cache.invalidate(id);
+        throw new PreconditionFailedException(
+                "La orden con ID " + id + " fue modificada; vuelva a consultarla antes de actualizar");
+    }
 }
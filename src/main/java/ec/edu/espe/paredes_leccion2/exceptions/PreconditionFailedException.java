@@ -0,0 +1,16 @@
+package ec.edu.espe.paredes_leccion2.exceptions;
+
+/**
+ * Excepción para cuando la versión de una entidad no coincide con la esperada
+ * (If-Match o bloqueo optimista)
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+    public PreconditionFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
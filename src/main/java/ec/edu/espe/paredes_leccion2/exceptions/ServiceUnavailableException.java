@@ -0,0 +1,19 @@
+package ec.edu.espe.paredes_leccion2.exceptions;
+
+/**
+ * Excepción para cuando el servicio no tiene capacidad para aceptar la solicitud en este
+ * momento (se responde 503 con Retry-After)
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
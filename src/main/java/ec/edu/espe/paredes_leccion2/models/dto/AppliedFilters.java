@@ -0,0 +1,32 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * Filtros recibidos por el listado, tal como los envió el cliente (solo los presentes se serializan)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AppliedFilters(String q,
+                             String status,
+                             String currency,
+                             BigDecimal minTotal,
+                             BigDecimal maxTotal,
+                             String from,
+                             String to) {
+
+    /**
+     * Crea los filtros aplicados, o null si no se envió ninguno
+     */
+    public static AppliedFilters of(String q, String status, String currency,
+                                    BigDecimal minTotal, BigDecimal maxTotal,
+                                    String from, String to) {
+        String search = q != null && !q.trim().isEmpty() ? q : null;
+        if (search == null && status == null && currency == null && minTotal == null
+                && maxTotal == null && from == null && to == null) {
+            return null;
+        }
+        return new AppliedFilters(search, status, currency, minTotal, maxTotal, from, to);
+    }
+}
@@ -0,0 +1,33 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * Resultado de un elemento dentro de una operación masiva
+ *
+ * @param index       posición del elemento en la solicitud
+ * @param status      CREATED o FAILED
+ * @param id          id asignado (solo si se creó)
+ * @param orderNumber número de orden usado o generado
+ * @param errors      errores de validación o de escritura (vacío si se creó)
+ */
+public record BatchItemResult(int index, String status, Long id, String orderNumber, List<String> errors) {
+
+    public static final String CREATED = "CREATED";
+    public static final String FAILED = "FAILED";
+
+    public static BatchItemResult created(int index, Long id, String orderNumber) {
+        return new BatchItemResult(index, CREATED, id, orderNumber, List.of());
+    }
+
+    public static BatchItemResult failed(int index, String orderNumber, List<String> errors) {
+        return new BatchItemResult(index, FAILED, null, orderNumber, errors);
+    }
+
+    @JsonIgnore
+    public boolean isCreated() {
+        return CREATED.equals(status);
+    }
+}
@@ -0,0 +1,18 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Solicitud de eliminación masiva: una lista de ids o los mismos filtros del listado
+ * (no ambos)
+ */
+public record BulkDeleteRequest(List<Long> ids,
+                                String q,
+                                String status,
+                                String currency,
+                                BigDecimal minTotal,
+                                BigDecimal maxTotal,
+                                String from,
+                                String to) {
+}
@@ -0,0 +1,14 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtenida con paginación por cursor.
+ * nextCursor es null cuando no hay más resultados.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,72 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderSortField;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para la paginación por keyset.
+ * Guarda la posición de la última fila entregada (valor del campo de orden + id),
+ * el ordenamiento usado y una huella de los filtros para detectar cursores reutilizados
+ * con otra consulta.
+ */
+public record PageCursor(OrderSortField sort,
+                         Sort.Direction direction,
+                         String value,
+                         long id,
+                         int filterHash) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Codifica el cursor en base64 URL-safe
+     */
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + direction.name() + SEPARATOR + filterHash +
+                SEPARATOR + id + SEPARATOR + (value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Verifica que el valor guardado corresponda al tipo del campo de ordenamiento
+     */
+    private void validateValue() {
+        if (sort != OrderSortField.ID && value == null) {
+            throw new IllegalArgumentException("Cursor sin valor de ordenamiento");
+        }
+        switch (sort) {
+            case CREATED_AT -> LocalDateTime.parse(value);
+            case TOTAL_AMOUNT -> new BigDecimal(value);
+            case ID -> { }
+        }
+    }
+
+    /**
+     * Decodifica un cursor recibido del cliente
+     */
+    public static PageCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5) {
+                throw new ValidationException("Cursor no válido");
+            }
+            PageCursor cursor = new PageCursor(OrderSortField.valueOf(parts[0]),
+                    Sort.Direction.valueOf(parts[1]),
+                    parts[4].isEmpty() ? null : parts[4],
+                    Long.parseLong(parts[3]),
+                    Integer.parseInt(parts[2]));
+            cursor.validateValue();
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Cursor no válido");
+        }
+    }
+}
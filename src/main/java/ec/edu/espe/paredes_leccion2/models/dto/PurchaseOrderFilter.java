@@ -0,0 +1,34 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Conjunto de filtros ya validados y normalizados para consultar órdenes de compra.
+ * Un componente en null significa que ese filtro no se aplica.
+ */
+public record PurchaseOrderFilter(String q,
+                                  OrderStatus status,
+                                  Currency currency,
+                                  BigDecimal minTotal,
+                                  BigDecimal maxTotal,
+                                  LocalDateTime from,
+                                  LocalDateTime to) {
+
+    /**
+     * Filtro vacío (sin restricciones)
+     */
+    public static PurchaseOrderFilter none() {
+        return new PurchaseOrderFilter(null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Huella estable del filtro (no depende de la JVM), usada para asociar cursores a una consulta
+     */
+    public int fingerprint() {
+        return toString().hashCode();
+    }
+}
@@ -0,0 +1,18 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Respuesta del listado completo (sin paginación)
+ */
+public record PurchaseOrderListResponse(LocalDateTime timestamp,
+                                        int status,
+                                        String message,
+                                        int count,
+                                        List<PurchaseOrderSummary> data,
+                                        @JsonInclude(JsonInclude.Include.NON_NULL)
+                                        AppliedFilters appliedFilters) {
+}
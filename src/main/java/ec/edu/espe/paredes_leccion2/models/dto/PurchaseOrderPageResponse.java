@@ -0,0 +1,20 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Respuesta del listado paginado por cursor. nextCursor es null en la última página.
+ */
+public record PurchaseOrderPageResponse(LocalDateTime timestamp,
+                                        int status,
+                                        String message,
+                                        int count,
+                                        List<PurchaseOrderSummary> data,
+                                        String nextCursor,
+                                        boolean hasMore,
+                                        @JsonInclude(JsonInclude.Include.NON_NULL)
+                                        AppliedFilters appliedFilters) {
+}
@@ -0,0 +1,16 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Actualización parcial de una orden: solo se modifican los campos presentes (no null).
+ * El estado y la moneda se reciben como texto y se validan igual que en los filtros.
+ */
+public record PurchaseOrderPatch(String orderNumber,
+                                 String supplierName,
+                                 String status,
+                                 BigDecimal totalAmount,
+                                 String currency,
+                                 LocalDate expectedDeliveryDate) {
+}
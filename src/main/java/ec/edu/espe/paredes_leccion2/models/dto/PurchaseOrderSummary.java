@@ -0,0 +1,30 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado de órdenes, obtenida con una proyección (constructor expression) en lugar
+ * de una entidad administrada: no pasa por el contexto de persistencia ni por dirty checking.
+ * Serializa los mismos campos que {@link PurchaseOrder}.
+ */
+public record PurchaseOrderSummary(Long id,
+                                   String orderNumber,
+                                   String supplierName,
+                                   OrderStatus status,
+                                   BigDecimal totalAmount,
+                                   Currency currency,
+                                   LocalDateTime createdAt,
+                                   LocalDate expectedDeliveryDate) {
+
+    public static PurchaseOrderSummary from(PurchaseOrder order) {
+        return new PurchaseOrderSummary(order.getId(), order.getOrderNumber(), order.getSupplierName(),
+                order.getStatus(), order.getTotalAmount(), order.getCurrency(), order.getCreatedAt(),
+                order.getExpectedDeliveryDate());
+    }
+}
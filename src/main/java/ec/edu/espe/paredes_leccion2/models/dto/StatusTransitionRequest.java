@@ -0,0 +1,9 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import java.util.List;
+
+/**
+ * Solicitud de cambio de estado masivo: las órdenes indicadas pasan al estado status
+ */
+public record StatusTransitionRequest(List<Long> ids, String status) {
+}
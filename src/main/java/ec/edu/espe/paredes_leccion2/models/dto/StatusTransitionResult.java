@@ -0,0 +1,22 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+
+/**
+ * Resultado de una orden dentro de un cambio de estado masivo
+ *
+ * @param id      id de la orden
+ * @param outcome TRANSITIONED, UNCHANGED (ya estaba en el estado destino), NOT_FOUND,
+ *                INVALID_TRANSITION o CONFLICT (cambió de estado durante la operación)
+ * @param from    estado anterior (null si no existe)
+ * @param to      estado actual tras la operación (null si no existe)
+ * @param message detalle del rechazo (null si se aplicó)
+ */
+public record StatusTransitionResult(Long id, String outcome, OrderStatus from, OrderStatus to, String message) {
+
+    public static final String TRANSITIONED = "TRANSITIONED";
+    public static final String UNCHANGED = "UNCHANGED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+    public static final String INVALID_TRANSITION = "INVALID_TRANSITION";
+    public static final String CONFLICT = "CONFLICT";
+}
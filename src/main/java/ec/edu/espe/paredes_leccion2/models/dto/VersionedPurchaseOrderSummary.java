@@ -0,0 +1,24 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fila del listado junto con la versión de la orden (carga del almacén columnar)
+ */
+public record VersionedPurchaseOrderSummary(PurchaseOrderSummary summary, long version) {
+
+    /**
+     * Constructor usado por la proyección JPQL
+     */
+    public VersionedPurchaseOrderSummary(Long id, String orderNumber, String supplierName, OrderStatus status,
+                                         BigDecimal totalAmount, Currency currency, LocalDateTime createdAt,
+                                         LocalDate expectedDeliveryDate, Long version) {
+        this(new PurchaseOrderSummary(id, orderNumber, supplierName, status, totalAmount, currency, createdAt,
+                expectedDeliveryDate), version == null ? 0 : version);
+    }
+}
@@ -0,0 +1,47 @@
+package ec.edu.espe.paredes_leccion2.models.entities;
+
+import jakarta.persistence.*;
+
+/**
+ * Secuencia de números de orden por año.
+ * Cada instancia de la aplicación reserva bloques de números incrementando nextValue
+ * con la fila bloqueada, y luego los entrega desde memoria.
+ */
+@Entity
+@Table(name = "order_number_sequences")
+public class OrderNumberSequence {
+
+    @Id
+    @Column(name = "sequence_year")
+    private Integer year;
+
+    @Column(nullable = false)
+    private long nextValue;
+
+    // Constructor por defecto
+    public OrderNumberSequence() {
+    }
+
+    // Constructor con parámetros
+    public OrderNumberSequence(Integer year, long nextValue) {
+        this.year = year;
+        this.nextValue = nextValue;
+    }
+
+    // Getters y Setters
+    public Integer getYear() {
+        return year;
+    }
+
+    public void setYear(Integer year) {
+        this.year = year;
+    }
+
+    public long getNextValue() {
+        return nextValue;
+    }
+
+    public void setNextValue(long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
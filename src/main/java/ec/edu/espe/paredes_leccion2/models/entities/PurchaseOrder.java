@@ -1,9 +1,11 @@
 package ec.edu.espe.paredes_leccion2.models.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import ec.edu.espe.paredes_leccion2.models.enums.Currency;
 import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,7 +14,13 @@ import java.time.LocalDateTime;
  * Entidad que representa una Orden de Compra
  */
 @Entity
-@Table(name = "purchase_orders")
+@Table(name = "purchase_orders", indexes = {
+        @Index(name = "idx_po_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_po_total_amount_id", columnList = "total_amount, id"),
+        @Index(name = "idx_po_status_created_at", columnList = "status, created_at, id"),
+        @Index(name = "idx_po_currency_created_at", columnList = "currency, created_at, id"),
+        @Index(name = "idx_po_status_currency_total", columnList = "status, currency, total_amount")
+})
 public class PurchaseOrder {
 
     @Id
@@ -53,6 +61,13 @@ public class PurchaseOrder {
     @Future(message = "La fecha de entrega debe ser futura")
     private LocalDate expectedDeliveryDate;
 
+    // Bloqueo optimista; se expone como ETag y no en el cuerpo JSON
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonIgnore
+    private Long version;
+
     // Constructor por defecto
     public PurchaseOrder() {
         this.createdAt = LocalDateTime.now();
@@ -70,6 +85,19 @@ public class PurchaseOrder {
         this.expectedDeliveryDate = expectedDeliveryDate;
     }
 
+    // Constructor de copia (instancias desacopladas del contexto de persistencia)
+    public PurchaseOrder(PurchaseOrder source) {
+        this.id = source.id;
+        this.orderNumber = source.orderNumber;
+        this.supplierName = source.supplierName;
+        this.status = source.status;
+        this.totalAmount = source.totalAmount;
+        this.currency = source.currency;
+        this.createdAt = source.createdAt;
+        this.expectedDeliveryDate = source.expectedDeliveryDate;
+        this.version = source.version;
+    }
+
     @PrePersist
     protected void onCreate() {
         if (this.createdAt == null) {
@@ -145,6 +173,14 @@ public class PurchaseOrder {
         this.expectedDeliveryDate = expectedDeliveryDate;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "PurchaseOrder{" +
@@ -156,6 +192,7 @@ public class PurchaseOrder {
                 ", currency=" + currency +
                 ", createdAt=" + createdAt +
                 ", expectedDeliveryDate=" + expectedDeliveryDate +
+                ", version=" + version +
                 '}';
     }
 }
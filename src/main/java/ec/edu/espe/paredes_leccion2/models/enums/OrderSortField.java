@@ -0,0 +1,34 @@
+package ec.edu.espe.paredes_leccion2.models.enums;
+
+/**
+ * Campos por los que se puede ordenar la paginación por cursor.
+ * El id se usa siempre como desempate para que el orden sea total.
+ */
+public enum OrderSortField {
+    CREATED_AT("createdAt"),
+    TOTAL_AMOUNT("totalAmount"),
+    ID("id");
+
+    private final String property;
+
+    OrderSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * Obtiene el campo a partir del nombre de la propiedad (createdAt, totalAmount, id)
+     */
+    public static OrderSortField fromProperty(String property) {
+        for (OrderSortField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Campo de ordenamiento no válido: " + property +
+                ". Valores permitidos: createdAt, totalAmount, id");
+    }
+}
@@ -1,5 +1,11 @@
 package ec.edu.espe.paredes_leccion2.models.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Enum para los estados de una orden de compra
  */
@@ -8,5 +14,43 @@ public enum OrderStatus {
     SUBMITTED,
     APPROVED,
     REJECTED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Transiciones permitidas en los cambios de estado masivos, en PATCH y en PUT (estado destino por
+     * estado origen).
+     * Una orden cancelada no cambia de estado.
+     */
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    /** Estados desde los que se puede llegar a cada estado */
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        TRANSITIONS.put(DRAFT, EnumSet.of(SUBMITTED, CANCELLED));
+        TRANSITIONS.put(SUBMITTED, EnumSet.of(APPROVED, REJECTED, DRAFT, CANCELLED));
+        TRANSITIONS.put(APPROVED, EnumSet.of(CANCELLED));
+        TRANSITIONS.put(REJECTED, EnumSet.of(DRAFT, CANCELLED));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(OrderStatus.class));
+
+        for (OrderStatus target : values()) {
+            SOURCES.put(target, EnumSet.noneOf(OrderStatus.class));
+        }
+        TRANSITIONS.forEach((source, targets) -> targets.forEach(target -> SOURCES.get(target).add(source)));
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return TRANSITIONS.get(this).contains(target);
+    }
+
+    public Set<OrderStatus> allowedTransitions() {
+        return Collections.unmodifiableSet(TRANSITIONS.get(this));
+    }
+
+    /**
+     * Estados de origen desde los que se permite pasar a este estado
+     */
+    public Set<OrderStatus> allowedSources() {
+        return Collections.unmodifiableSet(SOURCES.get(this));
+    }
 }
@@ -0,0 +1,25 @@
+package ec.edu.espe.paredes_leccion2.repositories;
+
+import ec.edu.espe.paredes_leccion2.models.entities.OrderNumberSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repositorio para las secuencias de números de orden
+ */
+@Repository
+public interface OrderNumberSequenceRepository extends JpaRepository<OrderNumberSequence, Integer> {
+
+    /**
+     * Obtiene la secuencia del año bloqueando la fila (SELECT ... FOR UPDATE)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderNumberSequence s WHERE s.year = :year")
+    Optional<OrderNumberSequence> findForUpdate(@Param("year") Integer year);
+}
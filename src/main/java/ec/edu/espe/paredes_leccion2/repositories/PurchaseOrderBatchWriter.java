@@ -0,0 +1,93 @@
+package ec.edu.espe.paredes_leccion2.repositories;
+
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserción masiva de órdenes con batches JDBC.
+ *
+ * Hibernate no puede agrupar inserts de entidades con id IDENTITY, así que la carga masiva
+ * se hace directamente con JDBC: una sola sentencia preparada ejecutada en batch (que el
+ * driver de MySQL reescribe como INSERT multi-fila con rewriteBatchedStatements=true) y los
+ * ids generados se leen de vuelta en el mismo orden.
+ */
+@Repository
+public class PurchaseOrderBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO purchase_orders (order_number, supplier_name, status, total_amount, " +
+            "currency, created_at, expected_delivery_date, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserta las órdenes en un único batch y asigna a cada una el id generado.
+     *
+     * Si el driver no devuelve una clave por orden se lanza IncorrectResultSizeDataAccessException,
+     * para que la transacción del llamador deshaga el batch en lugar de dar por creadas órdenes sin id.
+     */
+    public void insertAll(List<PurchaseOrder> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PurchaseOrder order = orders.get(i);
+                        ps.setString(1, order.getOrderNumber());
+                        ps.setString(2, order.getSupplierName());
+                        ps.setString(3, order.getStatus().name());
+                        ps.setBigDecimal(4, order.getTotalAmount());
+                        ps.setString(5, order.getCurrency().name());
+                        ps.setTimestamp(6, Timestamp.valueOf(order.getCreatedAt()));
+                        ps.setDate(7, Date.valueOf(order.getExpectedDeliveryDate()));
+                        ps.setLong(8, order.getVersion());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return orders.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        if (keys.size() != orders.size()) {
+            throw new IncorrectResultSizeDataAccessException(
+                    "Se esperaban " + orders.size() + " ids generados y se recibieron " + keys.size(),
+                    orders.size(), keys.size());
+        }
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(generatedId(keys.get(i)));
+        }
+    }
+
+    private Long generatedId(Map<String, Object> key) {
+        for (Map.Entry<String, Object> entry : key.entrySet()) {
+            if ("id".equalsIgnoreCase(entry.getKey())) {
+                return ((Number) entry.getValue()).longValue();
+            }
+        }
+        // MySQL devuelve la clave como GENERATED_KEY
+        return ((Number) key.values().iterator().next()).longValue();
+    }
+}
@@ -1,22 +1,29 @@
 package ec.edu.espe.paredes_leccion2.repositories;
 
+import ec.edu.espe.paredes_leccion2.models.dto.VersionedPurchaseOrderSummary;
 import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
 import ec.edu.espe.paredes_leccion2.models.enums.Currency;
 import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad PurchaseOrder
  */
 @Repository
-public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
+public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long>, PurchaseOrderRepositoryCustom {
 
     /**
      * Busca órdenes por número de orden o nombre de proveedor (case-insensitive)
@@ -28,31 +35,54 @@ public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Lo
     List<PurchaseOrder> findBySearchQuery(@Param("q") String q);
 
     /**
-     * Busca órdenes aplicando todos los filtros posibles
+     * Recorre id, orderNumber y supplierName de todas las órdenes (carga del índice de búsqueda)
      */
-    @Query("SELECT po FROM PurchaseOrder po WHERE " +
-           "(:q IS NULL OR :q = '' OR " +
-           "LOWER(po.orderNumber) LIKE LOWER(CONCAT('%', :q, '%')) OR " +
-           "LOWER(po.supplierName) LIKE LOWER(CONCAT('%', :q, '%'))) AND " +
-           "(:status IS NULL OR po.status = :status) AND " +
-           "(:currency IS NULL OR po.currency = :currency) AND " +
-           "(:minTotal IS NULL OR po.totalAmount >= :minTotal) AND " +
-           "(:maxTotal IS NULL OR po.totalAmount <= :maxTotal) AND " +
-           "(:from IS NULL OR po.createdAt >= :from) AND " +
-           "(:to IS NULL OR po.createdAt <= :to)")
-    List<PurchaseOrder> findWithFilters(@Param("q") String q,
-                                       @Param("status") OrderStatus status,
-                                       @Param("currency") Currency currency,
-                                       @Param("minTotal") BigDecimal minTotal,
-                                       @Param("maxTotal") BigDecimal maxTotal,
-                                       @Param("from") LocalDateTime from,
-                                       @Param("to") LocalDateTime to);
+    @Query("SELECT po.id, po.orderNumber, po.supplierName FROM PurchaseOrder po")
+    Stream<Object[]> streamSearchableFields();
+
+    /**
+     * Recorre todas las órdenes como filas del listado con su versión (carga del almacén columnar)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new ec.edu.espe.paredes_leccion2.models.dto.VersionedPurchaseOrderSummary(po.id, " +
+           "po.orderNumber, po.supplierName, po.status, po.totalAmount, po.currency, po.createdAt, " +
+           "po.expectedDeliveryDate, po.version) FROM PurchaseOrder po")
+    Stream<VersionedPurchaseOrderSummary> streamSummaries();
+
+    /**
+     * Obtiene el mayor número de orden con el prefijo dado (ej. PO-2025-%).
+     * Al tener ancho fijo, el orden alfabético coincide con el numérico.
+     */
+    @Query("SELECT MAX(po.orderNumber) FROM PurchaseOrder po WHERE po.orderNumber LIKE :prefix")
+    String findMaxOrderNumber(@Param("prefix") String prefix);
 
     /**
      * Verifica si existe una orden con el número dado (para validar unicidad)
      */
     boolean existsByOrderNumber(String orderNumber);
 
+    /**
+     * Obtiene cuáles de los números de orden dados ya existen (validación de unicidad en lote)
+     */
+    @Query("SELECT po.orderNumber FROM PurchaseOrder po WHERE po.orderNumber IN :orderNumbers")
+    List<String> findExistingOrderNumbers(@Param("orderNumbers") Collection<String> orderNumbers);
+
+    /**
+     * Elimina las órdenes con los ids dados en una sola sentencia, sin cargarlas
+     */
+    @Modifying
+    @Query("DELETE FROM PurchaseOrder po WHERE po.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Conteo y suma de totalAmount agrupados por estado, moneda, año y mes de creación
+     * (carga inicial de las estadísticas)
+     */
+    @Query("SELECT po.status, po.currency, YEAR(po.createdAt), MONTH(po.createdAt), " +
+           "COUNT(po), SUM(po.totalAmount) FROM PurchaseOrder po " +
+           "GROUP BY po.status, po.currency, YEAR(po.createdAt), MONTH(po.createdAt)")
+    List<Object[]> aggregateByStatusCurrencyAndMonth();
+
     /**
      * Busca por estado
      */
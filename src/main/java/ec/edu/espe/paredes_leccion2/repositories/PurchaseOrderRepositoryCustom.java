@@ -0,0 +1,93 @@
+package ec.edu.espe.paredes_leccion2.repositories;
+
+import ec.edu.espe.paredes_leccion2.models.dto.PageCursor;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderSortField;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de PurchaseOrder que se construyen dinámicamente con Criteria API.
+ * Las consultas del listado devuelven proyecciones {@link PurchaseOrderSummary}, no entidades.
+ */
+public interface PurchaseOrderRepositoryCustom {
+
+    /**
+     * Obtiene hasta {@code limit} órdenes que cumplen los filtros, ordenadas por
+     * (sort, id) y posicionadas después del cursor (keyset). Si el cursor es null
+     * se devuelve la primera página.
+     *
+     * @param candidateIds si no es null, reemplaza la búsqueda de texto del filtro por
+     *                     {@code id IN (candidateIds)}
+     */
+    @ReplicaRead
+    List<PurchaseOrderSummary> findPage(PurchaseOrderFilter filter, Collection<Long> candidateIds,
+                                        OrderSortField sort, Sort.Direction direction,
+                                        PageCursor after, int limit);
+
+    /**
+     * Obtiene las órdenes que cumplen los filtros. La consulta solo incluye condiciones para
+     * los filtros presentes, de modo que la base de datos puede usar el índice que corresponde
+     * a esa combinación.
+     */
+    List<PurchaseOrderSummary> findWithFilters(PurchaseOrderFilter filter);
+
+    /**
+     * Obtiene las órdenes con id en {@code candidateIds} que cumplen los demás filtros
+     * (la búsqueda de texto ya está resuelta por los candidatos)
+     */
+    List<PurchaseOrderSummary> findByIdsWithFilters(Collection<Long> candidateIds, PurchaseOrderFilter filter);
+
+    /**
+     * Recorre las órdenes que cumplen los filtros en orden de id usando un cursor de base de datos.
+     * Las entidades se cargan en modo solo lectura y se leen en bloques de {@code fetchSize} filas;
+     * el Stream debe cerrarse y consumirse dentro de una transacción.
+     */
+    @ReplicaRead
+    Stream<PurchaseOrder> streamWithFilters(PurchaseOrderFilter filter, int fetchSize);
+
+    /**
+     * Obtiene y bloquea (SELECT ... FOR UPDATE) hasta {@code limit} órdenes que cumplen los
+     * filtros, en orden de id y con id mayor a {@code afterId} (si no es null). Se usa para
+     * eliminar por bloques conociendo el último estado de cada fila; requiere una transacción activa.
+     *
+     * @param candidateIds si no es null, reemplaza la búsqueda de texto del filtro por
+     *                     {@code id IN (candidateIds)}
+     */
+    List<PurchaseOrder> findAndLockForDelete(PurchaseOrderFilter filter, Collection<Long> candidateIds,
+                                             Long afterId, int limit);
+
+    /**
+     * Obtiene y bloquea (SELECT ... FOR UPDATE) las órdenes con id en {@code ids}, en orden de id
+     * para que dos transacciones concurrentes tomen los bloqueos en el mismo orden.
+     * Requiere una transacción activa.
+     */
+    List<PurchaseOrder> findAndLockByIds(Collection<Long> ids);
+
+    /**
+     * Asigna los atributos indicados con una sola sentencia
+     * UPDATE ... WHERE id = ? AND version = ? que además incrementa la versión.
+     * Requiere una transacción activa.
+     *
+     * @param changes valores nuevos por nombre de atributo de la entidad
+     * @return filas actualizadas: 0 si la orden no existe o ya no está en esa versión
+     */
+    int updateFields(Long id, long version, Map<String, Object> changes);
+
+    /**
+     * Cambia a {@code target} el estado de las órdenes con id en {@code ids} que siguen en
+     * alguno de los estados {@code sources}, con una sola sentencia
+     * UPDATE ... WHERE id IN (...) AND status IN (...) que además incrementa la versión.
+     * Requiere una transacción activa.
+     *
+     * @return filas actualizadas
+     */
+    int updateStatus(Collection<Long> ids, Collection<OrderStatus> sources, OrderStatus target);
+}
@@ -0,0 +1,248 @@
+package ec.edu.espe.paredes_leccion2.repositories;
+
+import ec.edu.espe.paredes_leccion2.models.dto.PageCursor;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderSortField;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Implementación de las consultas dinámicas de PurchaseOrder
+ *
+ * Las consultas del listado son transacciones de solo lectura; con réplicas configuradas,
+ * las páginas por cursor y la exportación ({@link ReplicaRead}) se atienden desde una réplica.
+ */
+public class PurchaseOrderRepositoryImpl implements PurchaseOrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PurchaseOrderSummary> findPage(PurchaseOrderFilter filter, Collection<Long> candidateIds,
+                                               OrderSortField sort, Sort.Direction direction,
+                                               PageCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PurchaseOrderSummary> query = cb.createQuery(PurchaseOrderSummary.class);
+        Root<PurchaseOrder> root = query.from(PurchaseOrder.class);
+        query.select(summary(cb, root));
+
+        List<Predicate> predicates = filterPredicates(cb, root, filter, candidateIds);
+        if (after != null) {
+            predicates.add(keysetPredicate(cb, root, sort, direction, after));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        Path<Long> id = root.get("id");
+        if (sort == OrderSortField.ID) {
+            query.orderBy(direction.isAscending() ? cb.asc(id) : cb.desc(id));
+        } else {
+            Path<?> key = root.get(sort.getProperty());
+            query.orderBy(direction.isAscending()
+                    ? List.of(cb.asc(key), cb.asc(id))
+                    : List.of(cb.desc(key), cb.desc(id)));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PurchaseOrderSummary> findWithFilters(PurchaseOrderFilter filter) {
+        return findByIdsWithFilters(null, filter);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PurchaseOrderSummary> findByIdsWithFilters(Collection<Long> candidateIds, PurchaseOrderFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PurchaseOrderSummary> query = cb.createQuery(PurchaseOrderSummary.class);
+        Root<PurchaseOrder> root = query.from(PurchaseOrder.class);
+        query.select(summary(cb, root));
+
+        query.where(filterPredicates(cb, root, filter, candidateIds).toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public int updateFields(Long id, long version, Map<String, Object> changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<PurchaseOrder> update = cb.createCriteriaUpdate(PurchaseOrder.class);
+        Root<PurchaseOrder> root = update.from(PurchaseOrder.class);
+
+        changes.forEach((attribute, value) -> update.set(root.get(attribute), value));
+        Path<Long> versionPath = root.get("version");
+        update.set(versionPath, cb.sum(versionPath, 1L));
+        update.where(cb.equal(root.get("id"), id), cb.equal(versionPath, version));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> ids, Collection<OrderStatus> sources, OrderStatus target) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<PurchaseOrder> update = cb.createCriteriaUpdate(PurchaseOrder.class);
+        Root<PurchaseOrder> root = update.from(PurchaseOrder.class);
+
+        update.set(root.<OrderStatus>get("status"), target);
+        Path<Long> versionPath = root.get("version");
+        update.set(versionPath, cb.sum(versionPath, 1L));
+        update.where(root.get("id").in(ids), root.get("status").in(sources));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public Stream<PurchaseOrder> streamWithFilters(PurchaseOrderFilter filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PurchaseOrder> query = cb.createQuery(PurchaseOrder.class);
+        Root<PurchaseOrder> root = query.from(PurchaseOrder.class);
+
+        query.where(filterPredicates(cb, root, filter, null).toArray(new Predicate[0]));
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<PurchaseOrder> findAndLockForDelete(PurchaseOrderFilter filter, Collection<Long> candidateIds,
+                                                    Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PurchaseOrder> query = cb.createQuery(PurchaseOrder.class);
+        Root<PurchaseOrder> root = query.from(PurchaseOrder.class);
+
+        List<Predicate> predicates = filterPredicates(cb, root, filter, candidateIds);
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(root.get("id"), afterId));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<PurchaseOrder> findAndLockByIds(Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PurchaseOrder> query = cb.createQuery(PurchaseOrder.class);
+        Root<PurchaseOrder> root = query.from(PurchaseOrder.class);
+
+        query.where(root.get("id").in(ids));
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    /**
+     * Proyección de las columnas del listado (constructor expression)
+     */
+    private CompoundSelection<PurchaseOrderSummary> summary(CriteriaBuilder cb, Root<PurchaseOrder> root) {
+        return cb.construct(PurchaseOrderSummary.class,
+                root.get("id"),
+                root.get("orderNumber"),
+                root.get("supplierName"),
+                root.get("status"),
+                root.get("totalAmount"),
+                root.get("currency"),
+                root.get("createdAt"),
+                root.get("expectedDeliveryDate"));
+    }
+
+    /**
+     * Predicados para los filtros presentes; los filtros null no generan condición.
+     * Si hay ids candidatos (resueltos por el índice de búsqueda) reemplazan al LIKE de q.
+     */
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<PurchaseOrder> root,
+                                             PurchaseOrderFilter filter, Collection<Long> candidateIds) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (candidateIds != null) {
+            predicates.add(root.get("id").in(candidateIds));
+        } else if (filter.q() != null) {
+            String pattern = "%" + filter.q().toLowerCase() + "%";
+            predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("orderNumber")), pattern),
+                    cb.like(cb.lower(root.get("supplierName")), pattern)));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(root.get("status"), filter.status()));
+        }
+        if (filter.currency() != null) {
+            predicates.add(cb.equal(root.get("currency"), filter.currency()));
+        }
+        if (filter.minTotal() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("totalAmount"), filter.minTotal()));
+        }
+        if (filter.maxTotal() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("totalAmount"), filter.maxTotal()));
+        }
+        if (filter.from() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filter.from()));
+        }
+        if (filter.to() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filter.to()));
+        }
+        return predicates;
+    }
+
+    /**
+     * Condición de keyset: (key, id) estrictamente después de la posición del cursor
+     * en el sentido del ordenamiento
+     */
+    private Predicate keysetPredicate(CriteriaBuilder cb, Root<PurchaseOrder> root,
+                                      OrderSortField sort, Sort.Direction direction,
+                                      PageCursor after) {
+        Path<Long> id = root.get("id");
+        boolean asc = direction.isAscending();
+        if (sort == OrderSortField.ID) {
+            return asc ? cb.greaterThan(id, after.id()) : cb.lessThan(id, after.id());
+        }
+
+        if (sort == OrderSortField.CREATED_AT) {
+            return keyset(cb, root.get("createdAt"), LocalDateTime.parse(after.value()), id, after.id(), asc);
+        }
+        return keyset(cb, root.get("totalAmount"), new BigDecimal(after.value()), id, after.id(), asc);
+    }
+
+    private <T extends Comparable<? super T>> Predicate keyset(CriteriaBuilder cb, Expression<T> key,
+                                                                T value, Path<Long> id, long lastId,
+                                                                boolean asc) {
+        Predicate beyondKey = asc ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+        Predicate sameKeyBeyondId = cb.and(cb.equal(key, value),
+                asc ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId));
+        return cb.or(beyondKey, sameKeyBeyondId);
+    }
+}
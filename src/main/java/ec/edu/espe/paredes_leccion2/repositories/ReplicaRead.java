@@ -0,0 +1,22 @@
+package ec.edu.espe.paredes_leccion2.repositories;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca los métodos de repositorio que, dentro de una transacción de solo lectura, pueden
+ * atenderse desde una réplica de lectura.
+ *
+ * Solo deben marcarse consultas cuyo resultado se entrega al cliente y no se guarda en
+ * memoria (cachés, índices, almacén columnar, estadísticas): lo que se carga desde una
+ * réplica con retraso quedaría desactualizado más allá de ese retraso. Las demás lecturas
+ * van al primario.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
@@ -0,0 +1,150 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.entities.OrderNumberSequence;
+import ec.edu.espe.paredes_leccion2.repositories.OrderNumberSequenceRepository;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generador de números de orden PO-YYYY-XXXXXX por bloques (hi/lo).
+ *
+ * Cada instancia reserva un bloque de números del año en la tabla order_number_sequences
+ * (una transacción corta con la fila bloqueada) y después los entrega sin bloqueos desde un
+ * AtomicLong. Varias instancias nunca reciben el mismo bloque; los números de un bloque que
+ * no se llegan a usar (por ejemplo al reiniciar) simplemente quedan como huecos.
+ */
+@Component
+public class OrderNumberAllocator {
+
+    static final long MAX_SEQUENCE = 999_999L;
+
+    static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    @Autowired
+    private OrderNumberSequenceRepository sequenceRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.order-number.block-size:50}")
+    private int blockSize;
+
+    private final Map<Integer, Block> blocks = new ConcurrentHashMap<>();
+
+    // ReentrantLock y no synchronized: la reserva hace I/O y no debe fijar hilos virtuales
+    private final Lock refillLock = new ReentrantLock();
+
+    /**
+     * Entrega el siguiente número de orden del año indicado
+     */
+    public String next(int year) {
+        Block block = blocks.get(year);
+        while (true) {
+            if (block != null) {
+                long value = block.next.getAndIncrement();
+                if (value < block.limit) {
+                    return String.format("PO-%d-%06d", year, value);
+                }
+            }
+            block = refill(year, block);
+        }
+    }
+
+    /**
+     * Reserva un bloque nuevo si nadie lo hizo ya mientras se esperaba el candado
+     */
+    private Block refill(int year, Block exhausted) {
+        refillLock.lock();
+        try {
+            Block current = blocks.get(year);
+            if (current != exhausted) {
+                return current;
+            }
+
+            long start = reserveBlock(year);
+            Block fresh = new Block(start, Math.min(start + blockSize, MAX_SEQUENCE + 1));
+            blocks.put(year, fresh);
+            return fresh;
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * Reintenta cuando otra instancia creó la fila del año al mismo tiempo (ahora sí existe) o
+     * cuando la base de datos abortó la transacción por un bloqueo: en MySQL dos inserciones
+     * concurrentes de la fila del año chocan en el bloqueo de huecos y una pierde por deadlock
+     */
+    private long reserveBlock(int year) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return reserveBlockInNewTransaction(year);
+            } catch (DataIntegrityViolationException | PessimisticLockingFailureException e) {
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private long reserveBlockInNewTransaction(int year) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        return tx.execute(status -> {
+            OrderNumberSequence sequence = sequenceRepository.findForUpdate(year)
+                    .orElseGet(() -> sequenceRepository.saveAndFlush(
+                            new OrderNumberSequence(year, firstFreeValue(year))));
+
+            long start = sequence.getNextValue();
+            if (start > MAX_SEQUENCE) {
+                throw new ValidationException("Se agotaron los números de orden para el año " + year);
+            }
+            sequence.setNextValue(start + blockSize);
+            return start;
+        });
+    }
+
+    /**
+     * Primer número libre del año según las órdenes ya registradas
+     */
+    private long firstFreeValue(int year) {
+        String max = purchaseOrderRepository.findMaxOrderNumber("PO-" + year + "-%");
+        if (max == null) {
+            return 1;
+        }
+        try {
+            return Long.parseLong(max.substring(max.lastIndexOf('-') + 1)) + 1;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long limit;
+
+        private Block(long start, long limit) {
+            this.next = new AtomicLong(start);
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Caché de lectura (read-through) de órdenes por id, acotada por tamaño y por tiempo de vida.
+ *
+ * Guarda copias desacopladas del contexto de persistencia y entrega a cada llamador su propia
+ * copia, de modo que modificar la orden obtenida no altera la entrada compartida. Varias
+ * lecturas concurrentes de un id ausente provocan una sola carga desde la base de datos. Las actualizaciones y eliminaciones hechas por
+ * {@link PurchaseOrderService} invalidan la entrada correspondiente; el tiempo de vida
+ * acota cuánto puede tardar en verse un cambio hecho por otra instancia.
+ */
+@Component
+@Order(PurchaseOrderChangeListener.DERIVED_DATA_ORDER)
+public class PurchaseOrderCache implements PurchaseOrderChangeListener {
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Value("${app.cache.orders.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.cache.orders.ttl:60s}")
+    private Duration ttl;
+
+    private LoadingCache<Long, PurchaseOrder> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public PurchaseOrder load(Long id) {
+                        return repository.findById(id).map(PurchaseOrder::new).orElse(null);
+                    }
+
+                    // Los ids ausentes de getAll se cargan con una sola consulta
+                    @Override
+                    public Map<Long, PurchaseOrder> loadAll(Set<? extends Long> ids) {
+                        return repository.findAllById(List.copyOf(ids)).stream()
+                                .map(PurchaseOrder::new)
+                                .collect(Collectors.toMap(PurchaseOrder::getId, Function.identity()));
+                    }
+                });
+    }
+
+    /**
+     * Obtiene la orden desde la caché o la carga de la base de datos
+     *
+     * @return una copia de la orden, o null si no existe (las ausencias no se guardan en caché)
+     */
+    public PurchaseOrder get(Long id) {
+        PurchaseOrder cached = cache.get(id);
+        return cached == null ? null : new PurchaseOrder(cached);
+    }
+
+    /**
+     * Obtiene varias órdenes; las que no están en caché se cargan con una sola consulta
+     *
+     * @return copias de las órdenes encontradas por id (los ids inexistentes no aparecen)
+     */
+    public Map<Long, PurchaseOrder> getAll(Collection<Long> ids) {
+        Map<Long, PurchaseOrder> copies = new LinkedHashMap<>();
+        cache.getAll(ids).forEach((id, order) -> copies.put(id, new PurchaseOrder(order)));
+        return copies;
+    }
+
+    /**
+     * Descarta la entrada de una orden modificada o eliminada
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void onUpdated(PurchaseOrder before, PurchaseOrder after) {
+        invalidate(after.getId());
+    }
+
+    @Override
+    public void onDeleted(PurchaseOrder deleted) {
+        invalidate(deleted.getId());
+    }
+
+    /**
+     * Contadores de aciertos, fallos y desalojos de la caché
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("maxSize", maxSize);
+        result.put("ttlSeconds", ttl.toSeconds());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("loads", stats.loadCount());
+        result.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+}
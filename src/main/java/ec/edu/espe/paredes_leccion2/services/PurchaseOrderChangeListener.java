@@ -0,0 +1,52 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+
+/**
+ * Recibe las escrituras confirmadas por {@link PurchaseOrderService}.
+ *
+ * Lo implementan las estructuras en memoria que se derivan de la tabla de órdenes (índices,
+ * cachés, contadores) para mantenerse al día sin volver a consultar la base de datos. Las
+ * órdenes recibidas no deben modificarse.
+ *
+ * Los listeners se notifican en el orden de {@link org.springframework.core.annotation.Order}:
+ * primero las estructuras de las que se leen resultados (índice de búsqueda, almacén columnar,
+ * estadísticas, caché por id), después la caché de consultas y al final los eventos SSE. Así,
+ * cuando la caché de consultas cambia de versión, una búsqueda que la recalcula ya ve la
+ * escritura, y un cliente que recibe el evento y vuelve a consultar no obtiene datos previos.
+ */
+public interface PurchaseOrderChangeListener {
+
+    /**
+     * Orden de las estructuras en memoria de las que se leen resultados
+     */
+    int DERIVED_DATA_ORDER = 0;
+
+    /**
+     * Orden de la caché de consultas: después de las estructuras que alimentan sus resultados
+     */
+    int QUERY_CACHE_ORDER = 100;
+
+    /**
+     * Orden de la publicación de eventos: al final, con todo lo demás ya al día
+     */
+    int EVENTS_ORDER = 200;
+
+    /**
+     * Se creó una orden (ya tiene id)
+     */
+    default void onCreated(PurchaseOrder created) {
+    }
+
+    /**
+     * Se actualizó una orden; {@code before} es su estado anterior a la actualización
+     */
+    default void onUpdated(PurchaseOrder before, PurchaseOrder after) {
+    }
+
+    /**
+     * Se eliminó una orden; {@code deleted} es su último estado conocido
+     */
+    default void onDeleted(PurchaseOrder deleted) {
+    }
+}
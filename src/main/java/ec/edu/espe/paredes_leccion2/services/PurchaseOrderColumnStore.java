@@ -0,0 +1,516 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.dto.VersionedPurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Copia en memoria de purchase_orders organizada por columnas, para resolver el listado
+ * filtrado sin consultar la base de datos.
+ *
+ * Cada orden ocupa una posición (slot) en arreglos paralelos: ordinal de estado y de moneda,
+ * monto en centavos, fecha de creación en microsegundos desde epoch y la fila ya proyectada
+ * que se devuelve. Además hay un bitset de posiciones vivas y uno por cada estado y moneda:
+ * los filtros de igualdad se resuelven con AND de palabras de 64 bits y solo los rangos de
+ * monto y fecha se comparan fila por fila. Con muchas filas el recorrido se reparte en
+ * segmentos que se procesan en paralelo.
+ *
+ * Se carga al iniciar y se mantiene con las escrituras hechas por {@link PurchaseOrderService};
+ * la base de datos sigue siendo la fuente de verdad y las escrituras hechas por otras
+ * instancias no se reflejan. Los listeners se notifican después de confirmar y sin orden entre
+ * hilos, así que cada posición guarda la versión de la orden y se ignoran las escrituras de
+ * una versión anterior, y los ids eliminados (que no se reutilizan) no vuelven a agregarse.
+ * Mientras alguna orden tenga un monto no representable en centavos, el almacén no responde
+ * consultas.
+ */
+@Component
+@Order(PurchaseOrderChangeListener.DERIVED_DATA_ORDER)
+public class PurchaseOrderColumnStore implements PurchaseOrderChangeListener, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderColumnStore.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Palabras de 64 bits por segmento del recorrido paralelo (65.536 posiciones)
+    private static final int SEGMENT_WORDS = 1024;
+
+    // Posiciones eliminadas a partir de las cuales se compactan los arreglos
+    private static final int MIN_DELETED_TO_COMPACT = 1024;
+
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(Long.MIN_VALUE);
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.columnar.enabled:true}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+
+    private long[] ids;
+    private byte[] statuses;
+    private byte[] currencies;
+    private long[] amountCents;
+    private long[] createdMicros;
+    private long[] versions;
+    private PurchaseOrderSummary[] rows;
+
+    private long[] live;
+    private long[][] statusBits;
+    private long[][] currencyBits;
+
+    private int size;
+    private boolean sortedById = true;
+
+    // Ids eliminados desde la última compactación, para ignorar notificaciones atrasadas
+    private final Set<Long> deletedIds = new HashSet<>();
+
+    // Órdenes cuyo monto no cabe en centavos (con su versión); mientras haya alguna el almacén
+    // no responde consultas
+    private final Map<Long, Long> unsupportedAmounts = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public PurchaseOrderColumnStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Carga las órdenes existentes antes de que la aplicación reciba tráfico
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            try (Stream<VersionedPurchaseOrderSummary> summaries = repository.streamSummaries()) {
+                summaries.forEach(row -> put(row.summary(), row.version()));
+            }
+        });
+
+        ready = true;
+        log.info("Almacén columnar cargado con {} órdenes", slots.size());
+    }
+
+    @Override
+    public void onCreated(PurchaseOrder created) {
+        put(PurchaseOrderSummary.from(created), version(created));
+    }
+
+    @Override
+    public void onUpdated(PurchaseOrder before, PurchaseOrder after) {
+        put(PurchaseOrderSummary.from(after), version(after));
+    }
+
+    @Override
+    public void onDeleted(PurchaseOrder deleted) {
+        remove(deleted.getId());
+    }
+
+    public boolean isReady() {
+        return enabled && ready && unsupportedAmounts.isEmpty();
+    }
+
+    /**
+     * Agrega o reemplaza una orden, salvo que ya se tenga una versión posterior o la orden
+     * haya sido eliminada
+     */
+    public void put(PurchaseOrderSummary row, long version) {
+        if (!enabled || row.id() == null) {
+            return;
+        }
+
+        Long cents;
+        try {
+            cents = row.totalAmount().movePointRight(2).longValueExact();
+        } catch (ArithmeticException e) {
+            cents = null;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (deletedIds.contains(row.id())) {
+                return;
+            }
+            Integer existing = slots.get(row.id());
+            Long unsupportedVersion = unsupportedAmounts.get(row.id());
+            long stored = existing != null ? versions[existing] : unsupportedVersion != null ? unsupportedVersion : -1;
+            if (version < stored) {
+                return;
+            }
+
+            if (cents == null) {
+                // Monto fuera de rango o con fracciones de centavo: el listado vuelve a la base de datos
+                if (existing != null) {
+                    removeSlot(row.id());
+                }
+                unsupportedAmounts.put(row.id(), version);
+                log.warn("Almacén columnar en pausa: monto no representable en centavos ({}) en la orden {}",
+                        row.totalAmount(), row.id());
+                return;
+            }
+            unsupportedAmounts.remove(row.id());
+
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                clearBit(statusBits[statuses[slot]], slot);
+                clearBit(currencyBits[currencies[slot]], slot);
+            } else {
+                if (size == ids.length) {
+                    grow();
+                }
+                slot = size++;
+                if (slot > 0 && ids[slot - 1] > row.id()) {
+                    sortedById = false;
+                }
+                slots.put(row.id(), slot);
+            }
+            write(slot, row, cents, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina una orden
+     */
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            deletedIds.add(id);
+            unsupportedAmounts.remove(id);
+            removeSlot(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene las órdenes que cumplen el filtro, ordenadas por id de forma ascendente.
+     *
+     * @param candidateIds ids que cumplen la búsqueda de texto (ordenados), o null si el
+     *                     filtro no tiene búsqueda de texto
+     * @return las órdenes, o null si el almacén no está listo o el filtro tiene búsqueda de
+     *         texto sin candidatos resueltos; en ese caso debe consultarse la base de datos
+     */
+    public List<PurchaseOrderSummary> find(PurchaseOrderFilter filter, Collection<Long> candidateIds) {
+        if (!isReady() || (filter.q() != null && candidateIds == null)) {
+            return null;
+        }
+
+        Bounds bounds = new Bounds(filter);
+        if (bounds.empty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] matches = candidateIds != null ? matchCandidates(bounds, candidateIds) : scan(bounds);
+
+            List<PurchaseOrderSummary> result = new ArrayList<>(matches.length);
+            for (int slot : matches) {
+                result.add(rows[slot]);
+            }
+            if (candidateIds == null && !sortedById) {
+                result.sort(Comparator.comparing(PurchaseOrderSummary::id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tamaño del almacén, para dimensionarlo
+     */
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("ready", isReady());
+            result.put("rows", slots.size());
+            result.put("slots", size);
+            result.put("capacity", ids.length);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] matchCandidates(Bounds bounds, Collection<Long> candidateIds) {
+        int[] matches = new int[candidateIds.size()];
+        int count = 0;
+        for (Long id : candidateIds) {
+            Integer slot = slots.get(id);
+            if (slot != null && bounds.matchesEquality(statuses[slot], currencies[slot]) && bounds.matchesRanges(slot)) {
+                matches[count++] = slot;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Recorre los bitsets por segmentos (en paralelo si hay más de uno), conservando el orden
+     */
+    private int[] scan(Bounds bounds) {
+        int words = wordsFor(size);
+        int segments = (words + SEGMENT_WORDS - 1) / SEGMENT_WORDS;
+
+        IntStream range = IntStream.range(0, segments);
+        if (segments > 1) {
+            range = range.parallel();
+        }
+        return range
+                .mapToObj(segment -> scanSegment(bounds, segment * SEGMENT_WORDS,
+                        Math.min(words, (segment + 1) * SEGMENT_WORDS)))
+                .flatMapToInt(IntStream::of)
+                .toArray();
+    }
+
+    private int[] scanSegment(Bounds bounds, int fromWord, int toWord) {
+        long[] statusWords = bounds.status < 0 ? null : statusBits[bounds.status];
+        long[] currencyWords = bounds.currency < 0 ? null : currencyBits[bounds.currency];
+
+        int[] matches = new int[64];
+        int count = 0;
+        for (int w = fromWord; w < toWord; w++) {
+            long word = live[w];
+            if (statusWords != null) {
+                word &= statusWords[w];
+            }
+            if (currencyWords != null) {
+                word &= currencyWords[w];
+            }
+            while (word != 0) {
+                int slot = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                if (bounds.matchesRanges(slot)) {
+                    if (count == matches.length) {
+                        matches = Arrays.copyOf(matches, count * 2);
+                    }
+                    matches[count++] = slot;
+                }
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Libera la posición de una orden (con el bloqueo de escritura tomado)
+     */
+    private void removeSlot(Long id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return;
+        }
+        clearBit(live, slot);
+        clearBit(statusBits[statuses[slot]], slot);
+        clearBit(currencyBits[currencies[slot]], slot);
+        rows[slot] = null;
+
+        int deleted = size - slots.size();
+        if (deleted >= MIN_DELETED_TO_COMPACT && deleted > size / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Reconstruye los arreglos solo con las posiciones vivas, ordenadas por id
+     */
+    private void compact() {
+        PurchaseOrderSummary[] liveRows = new PurchaseOrderSummary[slots.size()];
+        int count = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (rows[slot] != null) {
+                liveRows[count++] = rows[slot];
+            }
+        }
+        Arrays.sort(liveRows, Comparator.comparing(PurchaseOrderSummary::id));
+
+        long[] oldCents = amountCents;
+        long[] oldVersions = versions;
+        Map<Long, Integer> oldSlots = new HashMap<>(slots);
+        allocate(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, liveRows.length)) * 2));
+        slots.clear();
+        size = 0;
+        sortedById = true;
+        deletedIds.clear();
+
+        for (PurchaseOrderSummary row : liveRows) {
+            int slot = size++;
+            int oldSlot = oldSlots.get(row.id());
+            slots.put(row.id(), slot);
+            write(slot, row, oldCents[oldSlot], oldVersions[oldSlot]);
+        }
+    }
+
+    private void write(int slot, PurchaseOrderSummary row, long cents, long version) {
+        ids[slot] = row.id();
+        statuses[slot] = (byte) row.status().ordinal();
+        currencies[slot] = (byte) row.currency().ordinal();
+        amountCents[slot] = cents;
+        createdMicros[slot] = floorMicros(row.createdAt());
+        versions[slot] = version;
+        rows[slot] = row;
+        setBit(live, slot);
+        setBit(statusBits[statuses[slot]], slot);
+        setBit(currencyBits[currencies[slot]], slot);
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        statuses = new byte[capacity];
+        currencies = new byte[capacity];
+        amountCents = new long[capacity];
+        createdMicros = new long[capacity];
+        versions = new long[capacity];
+        rows = new PurchaseOrderSummary[capacity];
+
+        int words = wordsFor(capacity);
+        live = new long[words];
+        statusBits = new long[OrderStatus.values().length][words];
+        currencyBits = new long[Currency.values().length][words];
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        currencies = Arrays.copyOf(currencies, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        createdMicros = Arrays.copyOf(createdMicros, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        rows = Arrays.copyOf(rows, capacity);
+
+        int words = wordsFor(capacity);
+        live = Arrays.copyOf(live, words);
+        for (int i = 0; i < statusBits.length; i++) {
+            statusBits[i] = Arrays.copyOf(statusBits[i], words);
+        }
+        for (int i = 0; i < currencyBits.length; i++) {
+            currencyBits[i] = Arrays.copyOf(currencyBits[i], words);
+        }
+    }
+
+    private static long version(PurchaseOrder order) {
+        return order.getVersion() == null ? 0 : order.getVersion();
+    }
+
+    private static int wordsFor(int slots) {
+        return (slots + 63) >>> 6;
+    }
+
+    private static void setBit(long[] bits, int slot) {
+        bits[slot >>> 6] |= 1L << slot;
+    }
+
+    private static void clearBit(long[] bits, int slot) {
+        bits[slot >>> 6] &= ~(1L << slot);
+    }
+
+    static long floorMicros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + value.getNano() / 1_000;
+    }
+
+    static long ceilMicros(LocalDateTime value) {
+        return floorMicros(value) + (value.getNano() % 1_000 == 0 ? 0 : 1);
+    }
+
+    /**
+     * Límite en centavos equivalente a comparar contra el monto exacto
+     */
+    static long cents(BigDecimal amount, RoundingMode rounding) {
+        BigDecimal cents = amount.movePointRight(2).setScale(0, rounding);
+        if (cents.compareTo(MAX_CENTS) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (cents.compareTo(MIN_CENTS) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return cents.longValue();
+    }
+
+    /**
+     * Filtro traducido a ordinales y límites inclusivos sobre las columnas
+     */
+    private final class Bounds {
+
+        private final int status;
+        private final int currency;
+        private final long minCents;
+        private final long maxCents;
+        private final long fromMicros;
+        private final long toMicros;
+
+        private Bounds(PurchaseOrderFilter filter) {
+            status = filter.status() == null ? -1 : filter.status().ordinal();
+            currency = filter.currency() == null ? -1 : filter.currency().ordinal();
+            minCents = filter.minTotal() == null ? Long.MIN_VALUE : cents(filter.minTotal(), RoundingMode.CEILING);
+            maxCents = filter.maxTotal() == null ? Long.MAX_VALUE : cents(filter.maxTotal(), RoundingMode.FLOOR);
+            fromMicros = filter.from() == null ? Long.MIN_VALUE : ceilMicros(filter.from());
+            toMicros = filter.to() == null ? Long.MAX_VALUE : floorMicros(filter.to());
+        }
+
+        private boolean empty() {
+            return minCents > maxCents || fromMicros > toMicros;
+        }
+
+        private boolean matchesEquality(byte slotStatus, byte slotCurrency) {
+            return (status < 0 || status == slotStatus) && (currency < 0 || currency == slotCurrency);
+        }
+
+        private boolean matchesRanges(int slot) {
+            long amount = amountCents[slot];
+            long created = createdMicros[slot];
+            return amount >= minCents && amount <= maxCents && created >= fromMicros && created <= toMicros;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publica las escrituras confirmadas como Server-Sent Events (created, updated, deleted).
+ *
+ * Cada suscriptor puede filtrar por estado y moneda, y tiene su propia cola acotada de
+ * app.events.buffer-size eventos. Las escrituras solo encolan; el envío lo hace un hilo por
+ * suscriptor mientras tenga eventos pendientes, así un cliente lento no frena las escrituras
+ * ni a los demás clientes. Si la cola de un suscriptor se llena, se descartan sus eventos
+ * pendientes y recibe un evento reset para que vuelva a cargar el listado.
+ */
+@Component
+@Order(PurchaseOrderChangeListener.EVENTS_ORDER)
+public class PurchaseOrderEventPublisher implements PurchaseOrderChangeListener {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${app.events.max-subscribers:500}")
+    private int maxSubscribers;
+
+    @Value("${app.events.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${app.events.heartbeat:15s}")
+    private Duration heartbeat;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Lugares reservados; se cuentan aparte para que la reserva sea atómica
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private Counter resets;
+    private ExecutorService senders;
+    private ScheduledExecutorService heartbeats;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("events.subscribers", subscribers, Set::size)
+                .description("Suscriptores conectados al flujo de eventos de órdenes")
+                .register(meterRegistry);
+        resets = Counter.builder("events.resets")
+                .description("Eventos reset enviados a suscriptores cuya cola se llenó")
+                .register(meterRegistry);
+
+        AtomicInteger counter = new AtomicInteger();
+        senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Los comentarios periódicos detectan conexiones cerradas y evitan cortes por inactividad
+        heartbeats.scheduleAtFixedRate(() -> subscribers.forEach(Subscriber::heartbeat),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    /**
+     * Registra un suscriptor; status y currency en null no filtran
+     *
+     * @return el emisor SSE, o null si ya hay app.events.max-subscribers suscriptores
+     */
+    public SseEmitter subscribe(OrderStatus status, Currency currency) {
+        int current;
+        do {
+            current = reserved.get();
+            if (current >= maxSubscribers) {
+                return null;
+            }
+        } while (!reserved.compareAndSet(current, current + 1));
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, status, currency);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        // Primer evento: confirma la suscripción y envía las cabeceras de inmediato
+        subscriber.offer(new Event(sequence.get(), "ready", Map.of("lastEventId", sequence.get())));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Quita al suscriptor y libera su lugar una sola vez, aunque se llame desde varios callbacks
+     */
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            reserved.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void onCreated(PurchaseOrder created) {
+        publish("created", null, created);
+    }
+
+    @Override
+    public void onUpdated(PurchaseOrder before, PurchaseOrder after) {
+        publish("updated", before, after);
+    }
+
+    @Override
+    public void onDeleted(PurchaseOrder deleted) {
+        publish("deleted", deleted, null);
+    }
+
+    /**
+     * Encola el evento para los suscriptores cuyo filtro cumplía la orden antes o la cumple después
+     */
+    private void publish(String type, PurchaseOrder before, PurchaseOrder after) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Object data = after != null ? PurchaseOrderSummary.from(after) : Map.of("id", before.getId());
+        Event event = new Event(sequence.incrementAndGet(), type, data);
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.matches(before) || subscriber.matches(after)) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private record Event(long id, String type, Object data) {
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final OrderStatus status;
+        private final Currency currency;
+        private final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private volatile boolean overflowed;
+        private volatile boolean heartbeatPending;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, OrderStatus status, Currency currency) {
+            this.emitter = emitter;
+            this.status = status;
+            this.currency = currency;
+        }
+
+        boolean matches(PurchaseOrder order) {
+            return order != null
+                    && (status == null || status == order.getStatus())
+                    && (currency == null || currency == order.getCurrency());
+        }
+
+        void offer(Event event) {
+            if (!queue.offer(event)) {
+                // El cliente no sigue el ritmo: se descarta lo pendiente y se le pide recargar
+                queue.clear();
+                overflowed = true;
+            }
+            schedule();
+        }
+
+        void heartbeat() {
+            heartbeatPending = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed && sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    if (overflowed) {
+                        overflowed = false;
+                        resets.increment();
+                        emitter.send(SseEmitter.event().id(Long.toString(sequence.get())).name("reset")
+                                .data(Map.of("reason", "buffer-overflow"), MediaType.APPLICATION_JSON));
+                    }
+                    Event event = queue.poll();
+                    if (event == null) {
+                        break;
+                    }
+                    emitter.send(SseEmitter.event().id(Long.toString(event.id())).name(event.type())
+                            .data(event.data(), MediaType.APPLICATION_JSON));
+                }
+                if (heartbeatPending) {
+                    heartbeatPending = false;
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                closed = true;
+                unsubscribe(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+
+            // Eventos encolados mientras se liberaba el turno de envío
+            if (!queue.isEmpty() || overflowed) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.ExportFormat;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Servicio para exportar órdenes de compra en streaming (NDJSON o CSV).
+ * Las filas se leen con un cursor de base de datos y se escriben directamente en la
+ * salida, por lo que el consumo de memoria no depende del número de órdenes exportadas.
+ */
+@Service
+public class PurchaseOrderExportService {
+
+    private static final String CSV_HEADER =
+            "id,orderNumber,supplierName,status,totalAmount,currency,createdAt,expectedDeliveryDate";
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Convierte el parámetro format de la API
+     */
+    public ExportFormat parseFormat(String format) {
+        if (!StringUtils.hasText(format)) {
+            return ExportFormat.NDJSON;
+        }
+
+        try {
+            return ExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Formato de exportación no válido: " + format +
+                    ". Valores permitidos: ndjson, csv");
+        }
+    }
+
+    /**
+     * Escribe en la salida todas las órdenes que cumplen los filtros
+     *
+     * @return número de órdenes exportadas
+     */
+    @Transactional(readOnly = true)
+    public long export(PurchaseOrderFilter filter, ExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long rows = 0;
+
+        try (Stream<PurchaseOrder> orders = repository.streamWithFilters(filter, fetchSize)) {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            Iterator<PurchaseOrder> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                PurchaseOrder order = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, order);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(order));
+                    writer.write('\n');
+                }
+                // Evitar que el contexto de persistencia crezca con cada fila leída
+                entityManager.detach(order);
+                rows++;
+            }
+        }
+
+        writer.flush();
+        return rows;
+    }
+
+    private void writeCsvRow(Writer writer, PurchaseOrder order) throws IOException {
+        writer.write(String.valueOf(order.getId()));
+        writer.write(',');
+        writeCsvField(writer, order.getOrderNumber());
+        writer.write(',');
+        writeCsvField(writer, order.getSupplierName());
+        writer.write(',');
+        writer.write(order.getStatus().name());
+        writer.write(',');
+        writer.write(order.getTotalAmount().toPlainString());
+        writer.write(',');
+        writer.write(order.getCurrency().name());
+        writer.write(',');
+        writer.write(order.getCreatedAt().toString());
+        writer.write(',');
+        writer.write(order.getExpectedDeliveryDate().toString());
+        writer.write('\n');
+    }
+
+    /**
+     * Escribe un campo de texto escapándolo según RFC 4180 cuando es necesario
+     */
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
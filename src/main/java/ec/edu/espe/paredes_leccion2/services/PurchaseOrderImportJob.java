@@ -0,0 +1,127 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.dto.BatchItemResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estado y progreso de una importación CSV. El lector y el escritor de la importación lo
+ * actualizan mientras los clientes lo consultan.
+ */
+public class PurchaseOrderImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String source;
+    private final long totalBytes;
+    private final int maxErrors;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<BatchItemResult> errors = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+
+    PurchaseOrderImportJob(String source, long totalBytes, int maxErrors) {
+        this.source = source;
+        this.totalBytes = totalBytes;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void complete() {
+        finish(Status.COMPLETED, null);
+    }
+
+    void fail(String reason) {
+        finish(Status.FAILED, reason);
+    }
+
+    void addBytesRead(long bytes) {
+        bytesRead.addAndGet(bytes);
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void rowCreated() {
+        created.incrementAndGet();
+    }
+
+    /**
+     * Registra una fila rechazada; se guardan como máximo maxErrors detalles
+     */
+    void rowFailed(BatchItemResult error) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(error);
+            }
+        }
+    }
+
+    /**
+     * Progreso actual; los errores por fila se incluyen cuando la importación terminó
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", id);
+        result.put("source", source);
+        result.put("status", status);
+        result.put("submittedAt", submittedAt);
+        result.put("finishedAt", finishedAt);
+        result.put("bytesRead", Math.min(bytesRead.get(), totalBytes));
+        result.put("totalBytes", totalBytes);
+        result.put("rowsRead", rowsRead.get());
+        result.put("created", created.get());
+        result.put("failed", failed.get());
+        if (message != null) {
+            result.put("message", message);
+        }
+        if (isFinished()) {
+            synchronized (errors) {
+                result.put("errors", List.copyOf(errors));
+            }
+            result.put("errorsTruncated", failed.get() > errors.size());
+        }
+        return result;
+    }
+
+    private void finish(Status finalStatus, String reason) {
+        message = reason;
+        finishedAt = LocalDateTime.now();
+        status = finalStatus;
+    }
+}
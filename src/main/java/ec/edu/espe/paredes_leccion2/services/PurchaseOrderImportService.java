@@ -0,0 +1,485 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.exceptions.EntityNotFoundException;
+import ec.edu.espe.paredes_leccion2.exceptions.ServiceUnavailableException;
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.BatchItemResult;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Importación de órdenes desde archivos CSV (mismo formato que la exportación).
+ *
+ * Cada importación corre en segundo plano con dos hilos: el lector recorre el archivo en
+ * streaming, convierte y valida cada fila, y deja lotes de app.import.batch-size filas en
+ * una cola acotada; el escritor toma los lotes y los inserta con
+ * {@link PurchaseOrderService#saveAll}. Cuando la base de datos es más lenta que el lector
+ * la cola se llena y el lector espera, así la memoria usada queda acotada por
+ * batch-size × queue-capacity filas sin importar el tamaño del archivo.
+ *
+ * Corren a la vez hasta app.import.max-concurrent importaciones y esperan hasta
+ * app.import.max-queued más. Fuera de ese cupo la importación se rechaza con
+ * {@link ServiceUnavailableException} antes de copiar el archivo subido, así las subidas
+ * sobrantes no se acumulan en disco ni en la cola del ejecutor.
+ */
+@Service
+public class PurchaseOrderImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderImportService.class);
+
+    private static final List<String> REQUIRED_COLUMNS =
+            List.of("suppliername", "totalamount", "currency", "expecteddeliverydate");
+
+    // Marca de fin para el escritor
+    private static final List<ImportRow> END_OF_FILE = List.of();
+
+    @Autowired
+    private PurchaseOrderService purchaseOrderService;
+
+    @Value("${app.import.directory:}")
+    private String directory;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${app.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${app.import.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${app.import.max-queued:4}")
+    private int maxQueued;
+
+    @Value("${app.import.retention:1h}")
+    private Duration retention;
+
+    @Value("${app.batch.max-items:5000}")
+    private int batchMaxItems;
+
+    private final Map<String, PurchaseOrderImportJob> jobs = new ConcurrentHashMap<>();
+
+    // Importaciones en curso o en espera; se reserva un lugar antes de aceptar el archivo
+    private Semaphore slots;
+
+    private ExecutorService readers;
+    private ExecutorService writers;
+
+    @PostConstruct
+    void init() {
+        // saveAll rechaza lotes mayores a app.batch.max-items
+        batchSize = Math.max(1, Math.min(batchSize, batchMaxItems));
+        maxQueued = Math.max(0, maxQueued);
+        slots = new Semaphore(maxConcurrent + maxQueued);
+        // Los lugares ya acotan la cola; el límite solo evita que crezca si algo se desajusta
+        readers = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, maxQueued)), threadFactory("csv-import-reader-"));
+        writers = Executors.newFixedThreadPool(maxConcurrent, threadFactory("csv-import-writer-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        readers.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    /**
+     * Inicia la importación de un archivo subido. El archivo se copia a un temporal que se
+     * elimina al terminar la importación.
+     */
+    public PurchaseOrderImportJob importUpload(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new ValidationException("El archivo CSV no puede estar vacío");
+        }
+
+        acquireSlot();
+        Path temp = null;
+        boolean submitted = false;
+        try {
+            temp = Files.createTempFile("purchase-orders-", ".csv");
+            file.transferTo(temp);
+
+            String name = StringUtils.hasText(file.getOriginalFilename()) ? file.getOriginalFilename() : "upload.csv";
+            PurchaseOrderImportJob job = submit(temp, name, true);
+            submitted = true;
+            return job;
+        } catch (IOException e) {
+            throw new ValidationException("No se pudo recibir el archivo: " + e.getMessage());
+        } finally {
+            if (!submitted) {
+                slots.release();
+                deleteTemp(temp);
+            }
+        }
+    }
+
+    /**
+     * Inicia la importación de un archivo del servidor, ubicado dentro de app.import.directory
+     */
+    public PurchaseOrderImportJob importFile(String path) {
+        if (!StringUtils.hasText(directory)) {
+            throw new ValidationException("La importación de archivos del servidor no está habilitada");
+        }
+        if (!StringUtils.hasText(path)) {
+            throw new ValidationException("La ruta del archivo es requerida");
+        }
+
+        Path base = Path.of(directory).toAbsolutePath().normalize();
+        Path file = base.resolve(path).normalize();
+        if (!file.startsWith(base)) {
+            throw new ValidationException("La ruta debe estar dentro del directorio de importación");
+        }
+        if (!Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new ValidationException("No se encontró el archivo: " + path);
+        }
+
+        acquireSlot();
+        boolean submitted = false;
+        try {
+            PurchaseOrderImportJob job = submit(file, base.relativize(file).toString(), false);
+            submitted = true;
+            return job;
+        } finally {
+            if (!submitted) {
+                slots.release();
+            }
+        }
+    }
+
+    /**
+     * Obtiene una importación por su id
+     */
+    public PurchaseOrderImportJob getJob(String jobId) {
+        pruneFinishedJobs();
+        PurchaseOrderImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Importación no encontrada con ID: " + jobId);
+        }
+        return job;
+    }
+
+    private void acquireSlot() {
+        if (!slots.tryAcquire()) {
+            throw new ServiceUnavailableException("Hay demasiadas importaciones en curso o en espera, "
+                    + "intente nuevamente más tarde", 30);
+        }
+    }
+
+    /**
+     * Encola la importación con un lugar ya reservado, que se libera al terminar
+     */
+    private PurchaseOrderImportJob submit(Path file, String source, boolean deleteWhenDone) {
+        pruneFinishedJobs();
+
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new ValidationException("No se pudo leer el archivo: " + e.getMessage());
+        }
+
+        PurchaseOrderImportJob job = new PurchaseOrderImportJob(source, size, maxErrors);
+        readers.execute(() -> {
+            try {
+                run(job, file);
+            } finally {
+                if (deleteWhenDone) {
+                    deleteTemp(file);
+                }
+                slots.release();
+            }
+        });
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    private void deleteTemp(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}", file, e);
+        }
+    }
+
+    /**
+     * Lee el archivo y alimenta al escritor; corre en el hilo lector
+     */
+    private void run(PurchaseOrderImportJob job, Path file) {
+        job.start();
+        BlockingQueue<List<ImportRow>> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Future<?> writer = writers.submit(() -> {
+            writeBatches(job, queue);
+            return null;
+        });
+
+        try (InputStream in = new CountingInputStream(Files.newInputStream(file), job);
+             Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024)) {
+            CsvRecordReader csv = new CsvRecordReader(reader);
+            Map<String, Integer> columns = readHeader(csv.next());
+
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                job.rowRead();
+
+                List<String> errors = new ArrayList<>();
+                PurchaseOrder order = toPurchaseOrder(record, columns, errors);
+                if (!errors.isEmpty()) {
+                    job.rowFailed(BatchItemResult.failed((int) csv.recordLine(), order.getOrderNumber(), errors));
+                    continue;
+                }
+
+                batch.add(new ImportRow(csv.recordLine(), order));
+                if (batch.size() == batchSize) {
+                    enqueue(queue, batch, writer);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                enqueue(queue, batch, writer);
+            }
+            enqueue(queue, END_OF_FILE, writer);
+
+            writer.get();
+            job.complete();
+        } catch (ValidationException | IOException e) {
+            writer.cancel(true);
+            job.fail(e.getMessage());
+        } catch (ExecutionException e) {
+            log.error("Error al escribir la importación {}", job.getId(), e.getCause());
+            job.fail("Error al guardar las órdenes: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writer.cancel(true);
+            job.fail("La importación fue interrumpida");
+        } catch (RuntimeException e) {
+            log.error("Error en la importación {}", job.getId(), e);
+            writer.cancel(true);
+            job.fail("Error inesperado: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inserta los lotes de la cola hasta recibir la marca de fin; corre en el hilo escritor
+     */
+    private void writeBatches(PurchaseOrderImportJob job, BlockingQueue<List<ImportRow>> queue)
+            throws InterruptedException {
+        while (true) {
+            List<ImportRow> batch = queue.take();
+            if (batch == END_OF_FILE) {
+                return;
+            }
+
+            List<BatchItemResult> results = purchaseOrderService.saveAll(
+                    batch.stream().map(ImportRow::order).toList());
+            for (int i = 0; i < results.size(); i++) {
+                BatchItemResult result = results.get(i);
+                if (result.isCreated()) {
+                    job.rowCreated();
+                } else {
+                    job.rowFailed(BatchItemResult.failed((int) batch.get(i).line(),
+                            result.orderNumber(), result.errors()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Deja el lote en la cola esperando mientras esté llena, salvo que el escritor haya terminado
+     */
+    private void enqueue(BlockingQueue<List<ImportRow>> queue, List<ImportRow> batch, Future<?> writer)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            if (writer.isDone()) {
+                writer.get();
+                throw new IllegalStateException("El escritor de la importación terminó antes de tiempo");
+            }
+        }
+    }
+
+    /**
+     * Ubica las columnas por nombre (sin distinguir mayúsculas); la columna id se ignora
+     */
+    private Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new ValidationException("El archivo CSV está vacío");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+            // BOM que agregan algunas hojas de cálculo al guardar en UTF-8
+            if (i == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            columns.putIfAbsent(name, i);
+        }
+
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new ValidationException("Faltan columnas requeridas en el CSV: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    /**
+     * Convierte un registro en una orden; los errores de formato se agregan a errors.
+     * Las reglas de validación de la orden las aplica saveAll.
+     */
+    private PurchaseOrder toPurchaseOrder(List<String> record, Map<String, Integer> columns, List<String> errors) {
+        PurchaseOrder order = new PurchaseOrder();
+        order.setOrderNumber(value(record, columns, "ordernumber"));
+        order.setSupplierName(value(record, columns, "suppliername"));
+
+        String totalAmount = value(record, columns, "totalamount");
+        if (totalAmount != null) {
+            try {
+                order.setTotalAmount(new BigDecimal(totalAmount));
+            } catch (NumberFormatException e) {
+                errors.add("totalAmount: monto no válido: " + totalAmount);
+            }
+        }
+
+        try {
+            order.setCurrency(purchaseOrderService.validateAndParseCurrency(value(record, columns, "currency")));
+        } catch (ValidationException e) {
+            errors.add(e.getMessage());
+        }
+
+        try {
+            OrderStatus status = purchaseOrderService.validateAndParseStatus(value(record, columns, "status"));
+            if (status != null) {
+                order.setStatus(status);
+            }
+        } catch (ValidationException e) {
+            errors.add(e.getMessage());
+        }
+
+        String deliveryDate = value(record, columns, "expecteddeliverydate");
+        if (deliveryDate != null) {
+            try {
+                order.setExpectedDeliveryDate(LocalDate.parse(deliveryDate));
+            } catch (DateTimeParseException e) {
+                errors.add("expectedDeliveryDate: fecha no válida (formato esperado: yyyy-MM-dd): " + deliveryDate);
+            }
+        }
+
+        String createdAt = value(record, columns, "createdat");
+        if (createdAt != null) {
+            try {
+                order.setCreatedAt(LocalDateTime.parse(createdAt));
+            } catch (DateTimeParseException e) {
+                errors.add("createdAt: fecha no válida (formato esperado: yyyy-MM-ddTHH:mm:ss): " + createdAt);
+            }
+        }
+        return order;
+    }
+
+    private String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime limit = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(limit));
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record ImportRow(long line, PurchaseOrder order) {
+    }
+
+    /**
+     * Cuenta los bytes leídos del archivo para informar el progreso
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final PurchaseOrderImportJob job;
+
+        CountingInputStream(InputStream in, PurchaseOrderImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                job.addBytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                job.addBytesRead(n);
+            }
+            return n;
+        }
+    }
+}
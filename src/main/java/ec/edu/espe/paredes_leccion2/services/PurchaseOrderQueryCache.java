@@ -0,0 +1,153 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Caché de resultados del listado filtrado, con clave en la tupla de filtros normalizada.
+ *
+ * Cada clave incluye una versión: la versión del estado filtrado si la consulta filtra por
+ * estado, o la versión global en caso contrario. Toda escritura hecha por
+ * {@link PurchaseOrderService} incrementa la versión global y la de los estados afectados,
+ * por lo que las entradas anteriores dejan de ser alcanzables (nunca se sirven resultados
+ * obsoletos) y salen de la caché por tamaño o tiempo de vida.
+ */
+@Component
+@Order(PurchaseOrderChangeListener.QUERY_CACHE_ORDER)
+public class PurchaseOrderQueryCache implements PurchaseOrderChangeListener {
+
+    @Value("${app.cache.queries.max-rows:50000}")
+    private long maxRows;
+
+    @Value("${app.cache.queries.ttl:30s}")
+    private Duration ttl;
+
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final AtomicLongArray statusVersions = new AtomicLongArray(OrderStatus.values().length);
+
+    private Cache<Key, List<PurchaseOrderSummary>> cache;
+
+    @PostConstruct
+    void init() {
+        // El peso de cada entrada es su número de filas, así la memoria queda acotada por filas
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((Key key, List<PurchaseOrderSummary> rows) -> rows.size() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Obtiene el resultado de la consulta desde la caché o lo calcula con {@code loader}
+     */
+    public List<PurchaseOrderSummary> get(PurchaseOrderFilter filter, Supplier<List<PurchaseOrderSummary>> loader) {
+        PurchaseOrderFilter normalized = normalize(filter);
+        long version = normalized.status() == null
+                ? globalVersion.get()
+                : statusVersions.get(normalized.status().ordinal());
+
+        return cache.get(new Key(normalized, version), key -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Registra una escritura que afecta órdenes con los estados indicados.
+     * Sin estados (por ejemplo cuando no se conoce el estado de una fila eliminada) se
+     * invalidan todas las consultas.
+     */
+    public void invalidate(OrderStatus... statuses) {
+        globalVersion.incrementAndGet();
+        if (statuses.length == 0) {
+            for (int i = 0; i < statusVersions.length(); i++) {
+                statusVersions.incrementAndGet(i);
+            }
+            return;
+        }
+        for (OrderStatus status : statuses) {
+            if (status != null) {
+                statusVersions.incrementAndGet(status.ordinal());
+            }
+        }
+    }
+
+    /**
+     * Versión global: cambia con cada escritura de órdenes hecha por esta instancia
+     */
+    public long globalVersion() {
+        return globalVersion.get();
+    }
+
+    @Override
+    public void onCreated(PurchaseOrder created) {
+        invalidate(created.getStatus());
+    }
+
+    @Override
+    public void onUpdated(PurchaseOrder before, PurchaseOrder after) {
+        invalidate(before.getStatus(), after.getStatus());
+    }
+
+    @Override
+    public void onDeleted(PurchaseOrder deleted) {
+        invalidate(deleted.getStatus());
+    }
+
+    /**
+     * Contadores de la caché, para dimensionarla
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", cache.estimatedSize());
+        result.put("maxRows", maxRows);
+        result.put("ttlSeconds", ttl.toSeconds());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("globalVersion", globalVersion.get());
+        return result;
+    }
+
+    /**
+     * Lleva a una misma clave los filtros que producen el mismo resultado
+     * (la búsqueda no distingue mayúsculas y 100 es igual a 100.00)
+     */
+    private PurchaseOrderFilter normalize(PurchaseOrderFilter filter) {
+        return new PurchaseOrderFilter(
+                filter.q() == null ? null : filter.q().trim().toLowerCase(Locale.ROOT),
+                filter.status(),
+                filter.currency(),
+                normalize(filter.minTotal()),
+                normalize(filter.maxTotal()),
+                filter.from(),
+                filter.to());
+    }
+
+    private BigDecimal normalize(BigDecimal amount) {
+        return amount == null ? null : amount.stripTrailingZeros();
+    }
+
+    private record Key(PurchaseOrderFilter filter, long version) {
+    }
+}
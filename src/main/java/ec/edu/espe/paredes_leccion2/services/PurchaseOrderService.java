@@ -1,19 +1,43 @@
 package ec.edu.espe.paredes_leccion2.services;
 
 import ec.edu.espe.paredes_leccion2.exceptions.EntityNotFoundException;
+import ec.edu.espe.paredes_leccion2.exceptions.PreconditionFailedException;
 import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.BatchItemResult;
+import ec.edu.espe.paredes_leccion2.models.dto.CursorPage;
+import ec.edu.espe.paredes_leccion2.models.dto.PageCursor;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderPatch;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.dto.StatusTransitionResult;
 import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
 import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderSortField;
 import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderBatchWriter;
 import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 /**
  * Servicio para la gestión de órdenes de compra
@@ -21,16 +45,55 @@ import java.util.List;
 @Service
 public class PurchaseOrderService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private PurchaseOrderRepository repository;
 
+    @Autowired
+    private TrigramSearchIndex searchIndex;
+
+    @Autowired
+    private PurchaseOrderCache cache;
+
+    @Autowired
+    private PurchaseOrderQueryCache queryCache;
+
+    @Autowired
+    private PurchaseOrderColumnStore columnStore;
+
+    @Autowired
+    private List<PurchaseOrderChangeListener> changeListeners;
+
+    @Autowired
+    private OrderNumberAllocator orderNumberAllocator;
+
+    @Autowired
+    private PurchaseOrderBatchWriter batchWriter;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.batch.max-items:5000}")
+    private int batchMaxItems;
+
+    @Value("${app.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${app.bulk-delete.chunk-size:500}")
+    private int deleteChunkSize;
+
     /**
-     * Genera un nuevo número de orden automáticamente
+     * Genera un nuevo número de orden automáticamente.
+     * Los números se reservan por bloques, así que no requiere consultar la base de datos
+     * en cada llamada y dos llamadas concurrentes nunca obtienen el mismo número.
      */
     public String generateOrderNumber() {
-        int year = LocalDateTime.now().getYear();
-        long count = repository.count() + 1;
-        return String.format("PO-%d-%06d", year, count);
+        return orderNumberAllocator.next(LocalDateTime.now().getYear());
     }
 
     /**
@@ -49,15 +112,188 @@ public class PurchaseOrderService {
             throw new ValidationException("Ya existe una orden con el número: " + purchaseOrder.getOrderNumber());
         }
 
-        return repository.save(purchaseOrder);
+        PurchaseOrder saved = repository.save(purchaseOrder);
+        changeListeners.forEach(listener -> listener.onCreated(saved));
+        return saved;
+    }
+
+    /**
+     * Guarda un lote de órdenes con inserciones JDBC en batch.
+     *
+     * Todo el lote se valida antes de escribir: reglas de Bean Validation y de negocio,
+     * números de orden repetidos dentro del lote y, con una sola consulta IN, números ya
+     * existentes. Las órdenes sin número reciben uno generado. Las válidas se insertan en
+     * batches de app.batch.jdbc-batch-size filas, cada uno en su propia transacción.
+     *
+     * @return resultado por cada elemento, en el mismo orden de la solicitud
+     */
+    public List<BatchItemResult> saveAll(List<PurchaseOrder> purchaseOrders) {
+        if (purchaseOrders == null || purchaseOrders.isEmpty()) {
+            throw new ValidationException("El lote de órdenes no puede estar vacío");
+        }
+        if (purchaseOrders.size() > batchMaxItems) {
+            throw new ValidationException("El lote no puede tener más de " + batchMaxItems + " órdenes");
+        }
+
+        BatchItemResult[] results = new BatchItemResult[purchaseOrders.size()];
+        List<Integer> accepted = new ArrayList<>();
+
+        for (int i = 0; i < purchaseOrders.size(); i++) {
+            PurchaseOrder order = purchaseOrders.get(i);
+            List<String> errors = validateForBatch(order);
+            if (errors.isEmpty()) {
+                prepareForBatchInsert(order);
+                accepted.add(i);
+            } else {
+                results[i] = BatchItemResult.failed(i, order == null ? null : order.getOrderNumber(), errors);
+            }
+        }
+
+        // Unicidad: repetidos dentro del lote y existentes en la base de datos (una sola consulta)
+        Set<String> seen = new HashSet<>();
+        List<String> orderNumbers = new ArrayList<>();
+        for (Integer i : accepted) {
+            orderNumbers.add(purchaseOrders.get(i).getOrderNumber());
+        }
+        Set<String> existing = orderNumbers.isEmpty() ? Set.of()
+                : new HashSet<>(repository.findExistingOrderNumbers(orderNumbers));
+
+        List<Integer> toInsert = new ArrayList<>();
+        for (Integer i : accepted) {
+            String orderNumber = purchaseOrders.get(i).getOrderNumber();
+            if (existing.contains(orderNumber) || !seen.add(orderNumber)) {
+                results[i] = BatchItemResult.failed(i, orderNumber,
+                        List.of("Ya existe una orden con el número: " + orderNumber));
+            } else {
+                toInsert.add(i);
+            }
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int start = 0; start < toInsert.size(); start += jdbcBatchSize) {
+            List<Integer> chunk = toInsert.subList(start, Math.min(start + jdbcBatchSize, toInsert.size()));
+            List<PurchaseOrder> orders = chunk.stream().map(purchaseOrders::get).toList();
+            try {
+                tx.executeWithoutResult(status -> batchWriter.insertAll(orders));
+                for (Integer i : chunk) {
+                    PurchaseOrder order = purchaseOrders.get(i);
+                    results[i] = BatchItemResult.created(i, order.getId(), order.getOrderNumber());
+                    changeListeners.forEach(listener -> listener.onCreated(order));
+                }
+            } catch (DataAccessException e) {
+                for (Integer i : chunk) {
+                    PurchaseOrder order = purchaseOrders.get(i);
+                    order.setId(null);
+                    results[i] = BatchItemResult.failed(i, order.getOrderNumber(),
+                            List.of("No se pudo guardar la orden: " + e.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+
+        return List.of(results);
     }
 
     /**
      * Obtiene todas las órdenes aplicando filtros
      */
-    public List<PurchaseOrder> findAllWithFilters(String q, String status, String currency,
-                                                 BigDecimal minTotal, BigDecimal maxTotal,
-                                                 String from, String to) {
+    public List<PurchaseOrderSummary> findAllWithFilters(String q, String status, String currency,
+                                                         BigDecimal minTotal, BigDecimal maxTotal,
+                                                         String from, String to) {
+
+        return findAllWithFilters(buildFilter(q, status, currency, minTotal, maxTotal, from, to));
+    }
+
+    /**
+     * Obtiene todas las órdenes que cumplen un filtro ya validado
+     */
+    public List<PurchaseOrderSummary> findAllWithFilters(PurchaseOrderFilter filter) {
+        return queryCache.get(filter, () -> {
+            // La búsqueda de texto se resuelve con el índice de trigramas cuando es posible
+            List<Long> candidateIds = searchCandidates(filter);
+            if (candidateIds != null && candidateIds.isEmpty()) {
+                return List.of();
+            }
+
+            // Los filtros estructurados se resuelven en memoria con el almacén columnar
+            List<PurchaseOrderSummary> rows = columnStore.find(filter, candidateIds);
+            if (rows != null) {
+                return rows;
+            }
+
+            return candidateIds != null
+                    ? repository.findByIdsWithFilters(candidateIds, filter)
+                    : repository.findWithFilters(filter);
+        });
+    }
+
+    /**
+     * Obtiene una página de órdenes usando paginación por cursor (keyset) sobre (sort, id).
+     * El costo de cada página es el mismo sin importar qué tan profunda sea.
+     *
+     * @param sort      campo de ordenamiento (createdAt, totalAmount, id); por defecto el del cursor o createdAt
+     * @param direction asc o desc; por defecto la del cursor o desc
+     * @param cursor    cursor devuelto en la página anterior, o null para la primera página
+     * @param limit     tamaño de página (1..MAX_PAGE_SIZE); por defecto DEFAULT_PAGE_SIZE
+     */
+    public CursorPage<PurchaseOrderSummary> findPage(PurchaseOrderFilter filter, String sort, String direction,
+                                              String cursor, Integer limit) {
+        PageParameters page = validatePage(filter, sort, direction, cursor, limit);
+        int pageSize = page.size();
+        PageCursor after = page.after();
+        OrderSortField sortField = page.sort();
+        Sort.Direction sortDirection = page.direction();
+
+        List<Long> candidateIds = searchCandidates(filter);
+        if (candidateIds != null && candidateIds.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        // Se pide una fila extra para saber si existe una página siguiente
+        List<PurchaseOrderSummary> rows = repository.findPage(filter, candidateIds, sortField, sortDirection,
+                                                       after, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<PurchaseOrderSummary> items = rows.subList(0, pageSize);
+        PurchaseOrderSummary last = items.get(pageSize - 1);
+        String nextCursor = new PageCursor(sortField, sortDirection, sortValue(last, sortField),
+                last.id(), filter.fingerprint()).encode();
+        return new CursorPage<>(List.copyOf(items), nextCursor);
+    }
+
+    /**
+     * Valida los parámetros de paginación por cursor (sin consultar la base de datos)
+     */
+    public PageParameters validatePage(PurchaseOrderFilter filter, String sort, String direction,
+                                       String cursor, Integer limit) {
+        int pageSize = validatePageSize(limit);
+        PageCursor after = StringUtils.hasText(cursor) ? PageCursor.decode(cursor) : null;
+
+        OrderSortField sortField = StringUtils.hasText(sort) ? parseSortField(sort)
+                : after != null ? after.sort() : OrderSortField.CREATED_AT;
+        Sort.Direction sortDirection = StringUtils.hasText(direction) ? parseDirection(direction)
+                : after != null ? after.direction() : Sort.Direction.DESC;
+
+        if (after != null && (after.sort() != sortField || after.direction() != sortDirection
+                || after.filterHash() != filter.fingerprint())) {
+            throw new ValidationException("El cursor no corresponde a los filtros u ordenamiento solicitados");
+        }
+        return new PageParameters(sortField, sortDirection, after, pageSize);
+    }
+
+    /**
+     * Parámetros de paginación por cursor ya validados, con los valores por defecto aplicados
+     */
+    public record PageParameters(OrderSortField sort, Sort.Direction direction, PageCursor after, int size) {
+    }
+
+    /**
+     * Valida y convierte los parámetros de filtrado recibidos por la API
+     */
+    public PurchaseOrderFilter buildFilter(String q, String status, String currency,
+                                           BigDecimal minTotal, BigDecimal maxTotal,
+                                           String from, String to) {
 
         // Validar y convertir parámetros
         OrderStatus orderStatus = validateAndParseStatus(status);
@@ -79,16 +315,19 @@ public class PurchaseOrderService {
             searchQuery = null;
         }
 
-        return repository.findWithFilters(searchQuery, orderStatus, curr,
-                                        minTotal, maxTotal, fromDateTime, toDateTime);
+        return new PurchaseOrderFilter(searchQuery, orderStatus, curr,
+                                       minTotal, maxTotal, fromDateTime, toDateTime);
     }
 
     /**
      * Busca una orden por ID
      */
     public PurchaseOrder findById(Long id) {
-        return repository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("No se encontró la orden con ID: " + id));
+        PurchaseOrder order = cache.get(id);
+        if (order == null) {
+            throw new EntityNotFoundException("No se encontró la orden con ID: " + id);
+        }
+        return order;
     }
 
     /**
@@ -102,34 +341,389 @@ public class PurchaseOrderService {
      * Elimina una orden por ID
      */
     public void deleteById(Long id) {
-        if (!repository.existsById(id)) {
-            throw new EntityNotFoundException("No se encontró la orden con ID: " + id);
+        // Se lee la fila antes de borrarla para notificar su último estado
+        PurchaseOrder deleted = new TransactionTemplate(transactionManager).execute(status -> {
+            PurchaseOrder existing = repository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("No se encontró la orden con ID: " + id));
+            repository.delete(existing);
+            return new PurchaseOrder(existing);
+        });
+        changeListeners.forEach(listener -> listener.onDeleted(deleted));
+    }
+
+    /**
+     * Elimina en bloque las órdenes con los ids indicados o las que cumplen un filtro.
+     *
+     * Se procesa por bloques de app.bulk-delete.chunk-size filas, cada uno en su propia
+     * transacción: las filas del bloque se bloquean y se leen (para notificar su último estado
+     * a cachés, índice y estadísticas) y se eliminan con una sola sentencia DELETE ... WHERE id IN.
+     * Los ids que no existen se ignoran.
+     *
+     * @return número de órdenes eliminadas
+     */
+    public int deleteAll(List<Long> ids, PurchaseOrderFilter filter) {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = filter != null && !filter.equals(PurchaseOrderFilter.none());
+        if (byIds == byFilter) {
+            throw new ValidationException("Debe indicar una lista de ids o al menos un filtro, pero no ambos");
+        }
+
+        int deleted = 0;
+        if (byIds) {
+            if (ids.size() > batchMaxItems) {
+                throw new ValidationException("No se pueden eliminar más de " + batchMaxItems + " órdenes por ids");
+            }
+            List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().sorted().toList();
+            for (int start = 0; start < distinctIds.size(); start += deleteChunkSize) {
+                List<Long> chunk = distinctIds.subList(start, Math.min(start + deleteChunkSize, distinctIds.size()));
+                deleted += deleteChunk(PurchaseOrderFilter.none(), chunk, null).size();
+            }
+            return deleted;
+        }
+
+        List<Long> candidateIds = searchCandidates(filter);
+        if (candidateIds != null && candidateIds.isEmpty()) {
+            return 0;
         }
-        repository.deleteById(id);
+
+        Long afterId = null;
+        List<PurchaseOrder> chunk;
+        do {
+            chunk = deleteChunk(filter, candidateIds, afterId);
+            deleted += chunk.size();
+            afterId = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == deleteChunkSize);
+        return deleted;
     }
 
     /**
      * Actualiza una orden existente
      */
     public PurchaseOrder update(Long id, PurchaseOrder purchaseOrder) {
+        return update(id, purchaseOrder, null);
+    }
+
+    /**
+     * Actualiza una orden existente; con versión esperada (If-Match), solo si la orden sigue
+     * en esa versión (si no, PreconditionFailedException). Como en PATCH, un cambio de estado
+     * debe estar permitido por {@link OrderStatus#canTransitionTo}.
+     *
+     * La fila se lee bloqueada (SELECT ... FOR UPDATE) en la misma transacción que la
+     * actualiza, así que sin versión esperada la actualización siempre se aplica sobre la
+     * versión actual, aunque la caché por id tenga una anterior.
+     */
+    public PurchaseOrder update(Long id, PurchaseOrder purchaseOrder, Long expectedVersion) {
+        PurchaseOrder[] before = new PurchaseOrder[1];
+        PurchaseOrder updated = new TransactionTemplate(transactionManager).execute(status -> {
+            PurchaseOrder existing = repository.findAndLockByIds(List.of(id)).stream().findFirst()
+                    .orElseThrow(() -> new EntityNotFoundException("No se encontró la orden con ID: " + id));
+            if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+                cache.invalidate(id);
+                throw versionConflict(id, null);
+            }
+
+            // Verificar que el número de orden no esté siendo usado por otra orden
+            if (!existing.getOrderNumber().equals(purchaseOrder.getOrderNumber()) &&
+                repository.existsByOrderNumber(purchaseOrder.getOrderNumber())) {
+                throw new ValidationException("Ya existe una orden con el número: " + purchaseOrder.getOrderNumber());
+            }
+
+            validatePurchaseOrder(purchaseOrder);
+            OrderStatus target = purchaseOrder.getStatus();
+            if (target != null && target != existing.getStatus() && !existing.getStatus().canTransitionTo(target)) {
+                throw new ValidationException("No se permite pasar de " + existing.getStatus() + " a " + target);
+            }
+
+            before[0] = new PurchaseOrder(existing);
+            purchaseOrder.setId(id);
+            purchaseOrder.setCreatedAt(existing.getCreatedAt()); // Mantener fecha de creación original
+            purchaseOrder.setVersion(existing.getVersion());
+            return repository.save(purchaseOrder);
+        });
+
+        changeListeners.forEach(listener -> listener.onUpdated(before[0], updated));
+        return updated;
+    }
+
+    /**
+     * Aplica una actualización parcial con una sola sentencia UPDATE ... WHERE id = ? AND version = ?.
+     *
+     * Solo se validan los campos presentes; un cambio de estado debe estar permitido por
+     * {@link OrderStatus#canTransitionTo}. El estado anterior se toma de la caché por id, así
+     * que con la caché caliente la operación hace un único viaje a la base de datos (dos si
+     * cambia el número de orden, para validar su unicidad). Si la sentencia no actualiza
+     * ninguna fila se descarta la entrada de la caché y se comprueba si la orden sigue
+     * existiendo (si no, EntityNotFoundException); con versión esperada se lanza
+     * PreconditionFailedException y sin ella se vuelve a intentar una vez con la fila actual.
+     */
+    public PurchaseOrder patch(Long id, PurchaseOrderPatch patch, Long expectedVersion) {
+        PurchaseOrder patched = tryPatch(id, patch, expectedVersion);
+        if (patched == null && expectedVersion == null) {
+            // La versión venía de la caché, no del cliente: se reintenta con la fila recién leída
+            patched = tryPatch(id, patch, null);
+        }
+        if (patched == null) {
+            throw versionConflict(id, null);
+        }
+        return patched;
+    }
+
+    /**
+     * Un intento de {@link #patch}
+     *
+     * @return la orden actualizada, o null si otra escritura la cambió
+     */
+    private PurchaseOrder tryPatch(Long id, PurchaseOrderPatch patch, Long expectedVersion) {
         PurchaseOrder existing = findById(id);
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw versionConflict(id, null);
+        }
+        if (patch == null) {
+            throw new ValidationException("La actualización parcial no puede ser null");
+        }
 
-        // Verificar que el número de orden no esté siendo usado por otra orden
-        if (!existing.getOrderNumber().equals(purchaseOrder.getOrderNumber()) &&
-            repository.existsByOrderNumber(purchaseOrder.getOrderNumber())) {
-            throw new ValidationException("Ya existe una orden con el número: " + purchaseOrder.getOrderNumber());
+        PurchaseOrder patched = new PurchaseOrder(existing);
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (patch.orderNumber() != null) {
+            patched.setOrderNumber(patch.orderNumber());
+            changes.put("orderNumber", patched.getOrderNumber());
+        }
+        if (patch.supplierName() != null) {
+            patched.setSupplierName(patch.supplierName());
+            changes.put("supplierName", patched.getSupplierName());
+        }
+        if (StringUtils.hasText(patch.status())) {
+            OrderStatus status = validateAndParseStatus(patch.status());
+            // El UPDATE exige la versión leída, así que el estado de origen es el de existing
+            if (status != existing.getStatus() && !existing.getStatus().canTransitionTo(status)) {
+                throw new ValidationException("No se permite pasar de " + existing.getStatus() + " a " + status);
+            }
+            patched.setStatus(status);
+            changes.put("status", patched.getStatus());
+        }
+        if (patch.totalAmount() != null) {
+            patched.setTotalAmount(patch.totalAmount());
+            changes.put("totalAmount", patched.getTotalAmount());
+        }
+        if (StringUtils.hasText(patch.currency())) {
+            patched.setCurrency(validateAndParseCurrency(patch.currency()));
+            changes.put("currency", patched.getCurrency());
+        }
+        if (patch.expectedDeliveryDate() != null) {
+            patched.setExpectedDeliveryDate(patch.expectedDeliveryDate());
+            changes.put("expectedDeliveryDate", patched.getExpectedDeliveryDate());
+        }
+        if (changes.isEmpty()) {
+            throw new ValidationException("La actualización parcial no contiene campos para modificar");
         }
 
-        validatePurchaseOrder(purchaseOrder);
+        List<String> errors = new ArrayList<>();
+        for (String field : changes.keySet()) {
+            for (ConstraintViolation<PurchaseOrder> violation : validator.validateProperty(patched, field)) {
+                errors.add(field + ": " + violation.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new ValidationException(String.join("; ", errors));
+        }
+
+        if (changes.containsKey("orderNumber") && !existing.getOrderNumber().equals(patched.getOrderNumber()) &&
+            repository.existsByOrderNumber(patched.getOrderNumber())) {
+            throw new ValidationException("Ya existe una orden con el número: " + patched.getOrderNumber());
+        }
+
+        Integer updated = new TransactionTemplate(transactionManager)
+                .execute(status -> repository.updateFields(id, existing.getVersion(), changes));
+        if (updated == null || updated == 0) {
+            cache.invalidate(id);
+            if (!repository.existsById(id)) {
+                throw new EntityNotFoundException("No se encontró la orden con ID: " + id);
+            }
+            return null;
+        }
+
+        patched.setVersion(existing.getVersion() + 1);
+        changeListeners.forEach(listener -> listener.onUpdated(existing, patched));
+        return patched;
+    }
+
+    /**
+     * Cambia el estado de varias órdenes con una sola sentencia
+     * UPDATE ... WHERE id IN (...) AND status IN (...).
+     *
+     * Cada transición se valida primero contra la tabla en memoria de {@link OrderStatus} usando
+     * el estado de la caché por id (las órdenes ausentes se cargan con una sola consulta), lo que
+     * descarta sin bloquear nada las que no existen o no pueden cambiar. Las demás se bloquean
+     * (SELECT ... FOR UPDATE) y se actualizan y notifican solo las que, según la fila bloqueada,
+     * siguen en un estado de origen permitido; las filas bloqueadas son el estado anterior que
+     * reciben los listeners. Una orden que otra escritura cambió mientras tanto se informa como
+     * UNCHANGED si ya está en el estado destino, o como CONFLICT.
+     *
+     * @return resultado por cada id distinto, en el orden de la solicitud
+     */
+    public List<StatusTransitionResult> transitionStatus(List<Long> ids, String status) {
+        OrderStatus target = validateAndParseStatus(status);
+        if (target == null) {
+            throw new ValidationException("Debe indicar el estado destino");
+        }
+        if (ids == null || ids.isEmpty()) {
+            throw new ValidationException("Debe indicar al menos un id");
+        }
+        if (ids.size() > batchMaxItems) {
+            throw new ValidationException("No se puede cambiar el estado de más de " + batchMaxItems + " órdenes");
+        }
+
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, PurchaseOrder> current = cache.getAll(distinctIds);
+
+        Map<Long, StatusTransitionResult> results = new LinkedHashMap<>();
+        List<Long> pending = new ArrayList<>();
+        for (Long id : distinctIds) {
+            PurchaseOrder order = current.get(id);
+            if (order == null) {
+                results.put(id, new StatusTransitionResult(id, StatusTransitionResult.NOT_FOUND, null, null,
+                        "No se encontró la orden con ID: " + id));
+            } else if (order.getStatus() == target) {
+                results.put(id, new StatusTransitionResult(id, StatusTransitionResult.UNCHANGED, target, target, null));
+            } else if (!order.getStatus().canTransitionTo(target)) {
+                results.put(id, new StatusTransitionResult(id, StatusTransitionResult.INVALID_TRANSITION,
+                        order.getStatus(), order.getStatus(),
+                        "No se permite pasar de " + order.getStatus() + " a " + target));
+            } else {
+                results.put(id, null);
+                pending.add(id);
+            }
+        }
+        if (pending.isEmpty()) {
+            return new ArrayList<>(results.values());
+        }
+
+        // Estado anterior (fila bloqueada) de cada orden que se cambia
+        Map<Long, PurchaseOrder> transitioned = new TransactionTemplate(transactionManager).execute(tx -> {
+            Map<Long, PurchaseOrder> locked = new LinkedHashMap<>();
+            for (PurchaseOrder row : repository.findAndLockByIds(pending)) {
+                if (row.getStatus().canTransitionTo(target)) {
+                    locked.put(row.getId(), new PurchaseOrder(row));
+                } else if (row.getStatus() == target) {
+                    results.put(row.getId(), new StatusTransitionResult(row.getId(),
+                            StatusTransitionResult.UNCHANGED, target, target, null));
+                } else {
+                    results.put(row.getId(), new StatusTransitionResult(row.getId(), StatusTransitionResult.CONFLICT,
+                            current.get(row.getId()).getStatus(), row.getStatus(),
+                            "La orden cambió a " + row.getStatus() + " durante la operación"));
+                }
+            }
+            if (!locked.isEmpty()) {
+                repository.updateStatus(locked.keySet(), target.allowedSources(), target);
+            }
+            return locked;
+        });
+
+        for (Long id : pending) {
+            PurchaseOrder before = transitioned.get(id);
+            if (before != null) {
+                PurchaseOrder after = new PurchaseOrder(before);
+                after.setStatus(target);
+                after.setVersion(before.getVersion() + 1);
+                results.put(id, new StatusTransitionResult(id, StatusTransitionResult.TRANSITIONED,
+                        before.getStatus(), target, null));
+                changeListeners.forEach(listener -> listener.onUpdated(before, after));
+                continue;
+            }
+            // La caché tenía un estado anterior de la orden
+            cache.invalidate(id);
+            if (results.get(id) == null) {
+                results.put(id, new StatusTransitionResult(id, StatusTransitionResult.NOT_FOUND, null, null,
+                        "No se encontró la orden con ID: " + id));
+            }
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    /**
+     * Elimina un bloque de órdenes en una transacción y notifica cada fila eliminada
+     */
+    private List<PurchaseOrder> deleteChunk(PurchaseOrderFilter filter, List<Long> candidateIds, Long afterId) {
+        List<PurchaseOrder> deleted = new TransactionTemplate(transactionManager).execute(status -> {
+            List<PurchaseOrder> rows = repository.findAndLockForDelete(filter, candidateIds, afterId, deleteChunkSize);
+            if (rows.isEmpty()) {
+                return List.of();
+            }
+            repository.deleteByIds(rows.stream().map(PurchaseOrder::getId).toList());
+            return rows.stream().map(PurchaseOrder::new).toList();
+        });
+
+        for (PurchaseOrder order : deleted) {
+            changeListeners.forEach(listener -> listener.onDeleted(order));
+        }
+        return deleted;
+    }
 
-        purchaseOrder.setId(id);
-        purchaseOrder.setCreatedAt(existing.getCreatedAt()); // Mantener fecha de creación original
+    private PreconditionFailedException versionConflict(Long id, Throwable cause) {
+        return new PreconditionFailedException(
+                "La orden con ID " + id + " fue modificada; vuelva a consultarla antes de actualizar", cause);
+    }
 
-        return repository.save(purchaseOrder);
+    /**
+     * Ids que cumplen la búsqueda de texto según el índice, o null si no hay búsqueda de
+     * texto o el índice no puede resolverla
+     */
+    private List<Long> searchCandidates(PurchaseOrderFilter filter) {
+        if (filter.q() == null) {
+            return null;
+        }
+        long[] ids = searchIndex.search(filter.q());
+        return ids == null ? null : LongStream.of(ids).boxed().toList();
     }
 
     // Métodos de validación privados
 
+    /**
+     * Valida una orden de un lote y devuelve todos sus errores en lugar de lanzar excepción.
+     * Un número de orden vacío no es error: se genera uno al insertar.
+     */
+    private List<String> validateForBatch(PurchaseOrder purchaseOrder) {
+        if (purchaseOrder == null) {
+            return List.of("La orden de compra no puede ser null");
+        }
+
+        List<String> errors = new ArrayList<>();
+        boolean generateNumber = !StringUtils.hasText(purchaseOrder.getOrderNumber());
+        for (ConstraintViolation<PurchaseOrder> violation : validator.validate(purchaseOrder)) {
+            String field = violation.getPropertyPath().toString();
+            if (generateNumber && "orderNumber".equals(field)) {
+                continue;
+            }
+            errors.add(field + ": " + violation.getMessage());
+        }
+
+        if (errors.isEmpty()) {
+            try {
+                validatePurchaseOrder(purchaseOrder);
+            } catch (ValidationException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Completa los valores que en el camino JPA asignan el constructor y @PrePersist
+     */
+    private void prepareForBatchInsert(PurchaseOrder purchaseOrder) {
+        purchaseOrder.setId(null);
+        if (!StringUtils.hasText(purchaseOrder.getOrderNumber())) {
+            purchaseOrder.setOrderNumber(generateOrderNumber());
+        }
+        if (purchaseOrder.getCreatedAt() == null) {
+            purchaseOrder.setCreatedAt(LocalDateTime.now());
+        }
+        if (purchaseOrder.getStatus() == null) {
+            purchaseOrder.setStatus(OrderStatus.DRAFT);
+        }
+        purchaseOrder.setVersion(0L);
+    }
+
     private void validatePurchaseOrder(PurchaseOrder purchaseOrder) {
         if (purchaseOrder == null) {
             throw new ValidationException("La orden de compra no puede ser null");
@@ -146,7 +740,7 @@ public class PurchaseOrderService {
         }
     }
 
-    private OrderStatus validateAndParseStatus(String status) {
+    OrderStatus validateAndParseStatus(String status) {
         if (!StringUtils.hasText(status)) {
             return null;
         }
@@ -159,7 +753,7 @@ public class PurchaseOrderService {
         }
     }
 
-    private Currency validateAndParseCurrency(String currency) {
+    Currency validateAndParseCurrency(String currency) {
         if (!StringUtils.hasText(currency)) {
             return null;
         }
@@ -172,7 +766,7 @@ public class PurchaseOrderService {
         }
     }
 
-    private void validateAmounts(BigDecimal minTotal, BigDecimal maxTotal) {
+    void validateAmounts(BigDecimal minTotal, BigDecimal maxTotal) {
         if (minTotal != null && minTotal.compareTo(BigDecimal.ZERO) < 0) {
             throw new ValidationException("El monto mínimo debe ser mayor o igual a 0");
         }
@@ -186,7 +780,7 @@ public class PurchaseOrderService {
         }
     }
 
-    private LocalDateTime parseDateTime(String dateTimeStr, String paramName) {
+    LocalDateTime parseDateTime(String dateTimeStr, String paramName) {
         if (!StringUtils.hasText(dateTimeStr)) {
             return null;
         }
@@ -204,4 +798,39 @@ public class PurchaseOrderService {
             throw new ValidationException("La fecha 'from' no puede ser posterior a la fecha 'to'");
         }
     }
+
+    private int validatePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ValidationException("El parámetro 'limit' debe estar entre 1 y " + MAX_PAGE_SIZE);
+        }
+        return limit;
+    }
+
+    private OrderSortField parseSortField(String sort) {
+        try {
+            return OrderSortField.fromProperty(sort);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(e.getMessage());
+        }
+    }
+
+    private Sort.Direction parseDirection(String direction) {
+        try {
+            return Sort.Direction.fromString(direction);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Dirección de ordenamiento no válida: " + direction +
+                    ". Valores permitidos: asc, desc");
+        }
+    }
+
+    private String sortValue(PurchaseOrderSummary order, OrderSortField sortField) {
+        return switch (sortField) {
+            case CREATED_AT -> order.createdAt().toString();
+            case TOTAL_AMOUNT -> order.totalAmount().toPlainString();
+            case ID -> null;
+        };
+    }
 }
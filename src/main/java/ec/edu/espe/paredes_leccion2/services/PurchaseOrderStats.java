@@ -0,0 +1,196 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores agregados de órdenes por estado, por moneda y por mes (de createdAt).
+ *
+ * Los conteos y las sumas de totalAmount se guardan en {@link LongAdder} (las sumas en
+ * centavos, por lo que son exactas y se pueden restar). Se cargan una sola vez al iniciar
+ * con consultas GROUP BY y luego se ajustan con cada escritura, de modo que consultarlos no
+ * depende del tamaño de la tabla. Los montos nunca se suman entre monedas distintas.
+ *
+ * Las lecturas no son una foto atómica: durante una escritura concurrente un conteo puede
+ * reflejarla antes que la suma correspondiente. Las escrituras hechas por otras instancias
+ * no se reflejan.
+ */
+@Component
+@Order(PurchaseOrderChangeListener.DERIVED_DATA_ORDER)
+public class PurchaseOrderStats implements PurchaseOrderChangeListener, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderStats.class);
+
+    private static final Currency[] CURRENCIES = Currency.values();
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** En false no se consulta la base al iniciar (ejecución de entrenamiento de AppCDS) */
+    @Value("${app.stats.preload:true}")
+    private boolean preload;
+
+    private final Bucket total = new Bucket();
+    private final Bucket[] byStatus = newBuckets(OrderStatus.values().length);
+    private final Bucket[] byCurrency = newBuckets(CURRENCIES.length);
+    private final Map<YearMonth, Bucket> byMonth = new ConcurrentHashMap<>();
+
+    /**
+     * Carga los contadores con las órdenes existentes antes de que la aplicación reciba tráfico
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!preload) {
+            return;
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            for (Object[] row : repository.aggregateByStatusCurrencyAndMonth()) {
+                OrderStatus orderStatus = (OrderStatus) row[0];
+                Currency currency = (Currency) row[1];
+                YearMonth month = YearMonth.of(((Number) row[2]).intValue(), ((Number) row[3]).intValue());
+                long count = ((Number) row[4]).longValue();
+                long cents = toCents((BigDecimal) row[5]);
+                add(orderStatus, currency, month, count, cents);
+            }
+        });
+
+        log.info("Estadísticas de órdenes cargadas: {} órdenes", total.count.sum());
+    }
+
+    @Override
+    public void onCreated(PurchaseOrder created) {
+        apply(created, 1);
+    }
+
+    @Override
+    public void onUpdated(PurchaseOrder before, PurchaseOrder after) {
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    @Override
+    public void onDeleted(PurchaseOrder deleted) {
+        apply(deleted, -1);
+    }
+
+    /**
+     * Conteos y montos totales por moneda: en total, por estado, por moneda y por mes
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> byStatusResult = new LinkedHashMap<>();
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatusResult.put(status.name(), byStatus[status.ordinal()].toMap());
+        }
+
+        Map<String, Object> byCurrencyResult = new LinkedHashMap<>();
+        for (Currency currency : CURRENCIES) {
+            byCurrencyResult.put(currency.name(), byCurrency[currency.ordinal()].toMap());
+        }
+
+        Map<String, Object> byMonthResult = new LinkedHashMap<>();
+        new ConcurrentSkipListMap<>(byMonth).forEach((month, bucket) -> {
+            if (bucket.count.sum() > 0) {
+                byMonthResult.put(month.toString(), bucket.toMap());
+            }
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("total", total.toMap());
+        result.put("byStatus", byStatusResult);
+        result.put("byCurrency", byCurrencyResult);
+        result.put("byMonth", byMonthResult);
+        return result;
+    }
+
+    private void apply(PurchaseOrder order, int sign) {
+        if (order == null || order.getStatus() == null || order.getCurrency() == null
+                || order.getCreatedAt() == null || order.getTotalAmount() == null) {
+            return;
+        }
+        add(order.getStatus(), order.getCurrency(), YearMonth.from(order.getCreatedAt()),
+            sign, sign * toCents(order.getTotalAmount()));
+    }
+
+    private void add(OrderStatus status, Currency currency, YearMonth month, long count, long cents) {
+        total.add(currency, count, cents);
+        byStatus[status.ordinal()].add(currency, count, cents);
+        byCurrency[currency.ordinal()].add(currency, count, cents);
+        byMonth.computeIfAbsent(month, m -> new Bucket()).add(currency, count, cents);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static Bucket[] newBuckets(int size) {
+        Bucket[] buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        return buckets;
+    }
+
+    /**
+     * Conteo y suma en centavos por moneda de un grupo de órdenes
+     */
+    private static final class Bucket {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder[] cents = new LongAdder[CURRENCIES.length];
+
+        private Bucket() {
+            for (int i = 0; i < cents.length; i++) {
+                cents[i] = new LongAdder();
+            }
+        }
+
+        private void add(Currency currency, long countDelta, long centsDelta) {
+            count.add(countDelta);
+            cents[currency.ordinal()].add(centsDelta);
+        }
+
+        private Map<String, Object> toMap() {
+            Map<String, Object> amounts = new LinkedHashMap<>();
+            for (Currency currency : CURRENCIES) {
+                long sum = cents[currency.ordinal()].sum();
+                if (sum != 0) {
+                    amounts.put(currency.name(), BigDecimal.valueOf(sum, 2));
+                }
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", count.sum());
+            result.put("totalAmount", amounts);
+            return result;
+        }
+    }
+}
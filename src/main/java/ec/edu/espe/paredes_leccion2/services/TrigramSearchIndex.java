@@ -0,0 +1,325 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas sobre orderNumber y supplierName.
+ *
+ * Permite resolver la búsqueda de texto {@code q} (subcadena, sin distinguir mayúsculas
+ * ni acentos) sin recorrer la tabla: se intersectan las listas de ids de cada trigrama de
+ * la consulta y luego se verifica cada candidato contra el texto indexado, de modo que el
+ * resultado es exacto. Las listas de ids son arreglos long[] ordenados.
+ *
+ * El índice se carga al iniciar la aplicación y se mantiene con las escrituras hechas por
+ * {@link PurchaseOrderService}; las escrituras hechas por otras instancias no se reflejan.
+ */
+@Component
+@Order(PurchaseOrderChangeListener.DERIVED_DATA_ORDER)
+public class TrigramSearchIndex implements PurchaseOrderChangeListener, SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(TrigramSearchIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final int GRAM = 3;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.search.trigram-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.trigram-index.max-candidates:5000}")
+    private int maxCandidates;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, String[]> documents = new HashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * Carga el índice con las órdenes existentes antes de que la aplicación reciba tráfico
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = repository.streamSearchableFields()) {
+                rows.forEach(row -> index((Long) row[0], (String) row[1], (String) row[2]));
+            }
+        });
+
+        ready = true;
+        log.info("Índice de trigramas cargado con {} órdenes y {} trigramas", documents.size(), postings.size());
+    }
+
+    @Override
+    public void onCreated(PurchaseOrder created) {
+        index(created.getId(), created.getOrderNumber(), created.getSupplierName());
+    }
+
+    @Override
+    public void onUpdated(PurchaseOrder before, PurchaseOrder after) {
+        index(after.getId(), after.getOrderNumber(), after.getSupplierName());
+    }
+
+    @Override
+    public void onDeleted(PurchaseOrder deleted) {
+        remove(deleted.getId());
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Agrega o reemplaza los textos indexados de una orden
+     */
+    public void index(Long id, String orderNumber, String supplierName) {
+        if (!enabled || id == null) {
+            return;
+        }
+
+        String[] document = {normalize(orderNumber), normalize(supplierName)};
+        lock.writeLock().lock();
+        try {
+            String[] previous = documents.put(id, document);
+            if (previous != null) {
+                for (String field : previous) {
+                    forEachTrigram(field, key -> removePosting(key, id));
+                }
+            }
+            for (String field : document) {
+                forEachTrigram(field, key -> postings.computeIfAbsent(key, k -> new PostingList()).add(id));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Elimina una orden del índice
+     */
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            String[] previous = documents.remove(id);
+            if (previous != null) {
+                for (String field : previous) {
+                    forEachTrigram(field, key -> removePosting(key, id));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca los ids de las órdenes cuyo orderNumber o supplierName contiene el texto.
+     *
+     * @return ids ordenados de forma ascendente, o null si el índice no puede resolver la
+     *         consulta (no está listo, texto menor a 3 caracteres, comodines de LIKE o
+     *         demasiados resultados) y debe usarse la búsqueda en base de datos
+     */
+    public long[] search(String q) {
+        if (!isReady() || q == null || q.indexOf('%') >= 0 || q.indexOf('_') >= 0) {
+            return null;
+        }
+
+        String needle = normalize(q);
+        if (needle.length() < GRAM) {
+            return null;
+        }
+
+        long[] keys = distinctTrigrams(needle);
+
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                lists[i] = postings.get(keys[i]);
+                if (lists[i] == null) {
+                    return new long[0];
+                }
+            }
+
+            // Intersectar empezando por la lista más corta
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::size));
+            long[] candidates = lists[0].toArray();
+            int count = candidates.length;
+            for (int i = 1; i < lists.length && count > 0; i++) {
+                count = lists[i].retainAll(candidates, count);
+            }
+
+            // Descartar falsos positivos (trigramas presentes pero no contiguos)
+            int matches = 0;
+            for (int i = 0; i < count; i++) {
+                String[] document = documents.get(candidates[i]);
+                if (document[0].contains(needle) || document[1].contains(needle)) {
+                    candidates[matches++] = candidates[i];
+                }
+            }
+
+            if (matches > maxCandidates) {
+                return null;
+            }
+            return Arrays.copyOf(candidates, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removePosting(long key, long id) {
+        PostingList list = postings.get(key);
+        if (list != null && list.remove(id) && list.size() == 0) {
+            postings.remove(key);
+        }
+    }
+
+    /**
+     * Minúsculas y sin acentos, equivalente a la comparación de MySQL con collation *_ai_ci
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] distinctTrigrams(String text) {
+        long[] keys = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = trigram(text, i);
+        }
+        Arrays.sort(keys);
+        int distinct = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    private static void forEachTrigram(String text, LongConsumer action) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            action.accept(trigram(text, i));
+        }
+    }
+
+    /**
+     * Empaqueta los tres caracteres (16 bits cada uno) en un long
+     */
+    private static long trigram(String text, int offset) {
+        return ((long) text.charAt(offset) << 32)
+                | ((long) text.charAt(offset + 1) << 16)
+                | text.charAt(offset + 2);
+    }
+
+    /**
+     * Lista de ids ordenada, respaldada por un long[] que crece según se necesite
+     */
+    static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add(long id) {
+            // Los ids nuevos suelen ser los mayores: agregar al final es el caso común
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        /**
+         * Deja en {@code candidates} solo los ids presentes en esta lista
+         *
+         * @return cantidad de candidatos que quedan al inicio del arreglo
+         */
+        int retainAll(long[] candidates, int count) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count && j < size; i++) {
+                long candidate = candidates[i];
+                while (j < size && ids[j] < candidate) {
+                    j++;
+                }
+                if (j < size && ids[j] == candidate) {
+                    candidates[kept++] = candidate;
+                }
+            }
+            return kept;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
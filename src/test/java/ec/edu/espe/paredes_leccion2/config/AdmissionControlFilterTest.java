@@ -0,0 +1,116 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del control de admisión por cliente
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.admission.enabled=true",
+        "app.admission.read.rate=0.5",
+        "app.admission.read.burst=3",
+        "app.admission.write.rate=0.5",
+        "app.admission.write.burst=1",
+        "app.admission.trusted-proxies=127.0.0.1,0:0:0:0:0:0:0:1"})
+@ActiveProfiles("h2")
+public class AdmissionControlFilterTest {
+
+    private static final String BASE_PATH = "/api/v1/purchase-orders";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AdmissionControlFilter filter;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    public void testClientOverBudgetIsShedWithRetryAfter() throws Exception {
+        double shedBefore = meterRegistry.counter("admission.rejected", "kind", "read").count();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send("GET", BASE_PATH + "/generate-order-number", "erp").statusCode());
+        }
+        HttpResponse<String> shed = send("GET", BASE_PATH + "/generate-order-number", "erp");
+        assertEquals(429, shed.statusCode());
+        long retryAfter = Long.parseLong(shed.headers().firstValue("Retry-After").orElseThrow());
+        assertTrue(retryAfter >= 1 && retryAfter <= 2, "Retry-After " + retryAfter);
+        assertTrue(shed.body().contains("\"status\":429"), shed.body());
+        assertEquals(shedBefore + 1, meterRegistry.counter("admission.rejected", "kind", "read").count());
+        // El navegador solo entrega el 429 al frontend si lleva las cabeceras CORS
+        assertEquals("*", shed.headers().firstValue("Access-Control-Allow-Origin").orElse(null));
+
+        // Otros clientes, el presupuesto de escritura y el health check no se ven afectados
+        HttpResponse<String> other = send("GET", BASE_PATH + "/generate-order-number", "frontend");
+        assertEquals(200, other.statusCode());
+        assertTrue(other.headers().firstValue("Access-Control-Expose-Headers").orElse("").contains("ETag"));
+        assertNotEquals(429, send("POST", BASE_PATH + "/bulk-delete", "erp").statusCode());
+        assertEquals(429, send("POST", BASE_PATH + "/bulk-delete", "erp").statusCode());
+        assertEquals(200, send("GET", BASE_PATH + "/health", "erp").statusCode());
+    }
+
+    @Test
+    public void testClientHeaderIsOnlyTrustedFromConfiguredProxies() {
+        MockHttpServletRequest proxied = new MockHttpServletRequest("GET", BASE_PATH);
+        proxied.setRemoteAddr("127.0.0.1");
+        proxied.addHeader("X-Client-Id", "erp");
+        assertEquals("id:erp", filter.clientKey(proxied));
+
+        // Desde otra dirección la cabecera no sirve para rotar ni suplantar clientes
+        MockHttpServletRequest direct = new MockHttpServletRequest("GET", BASE_PATH);
+        direct.setRemoteAddr("203.0.113.7");
+        direct.addHeader("X-Client-Id", "frontend");
+        assertEquals("ip:203.0.113.7", filter.clientKey(direct));
+
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("GET", BASE_PATH);
+        anonymous.setRemoteAddr("127.0.0.1");
+        assertEquals("ip:127.0.0.1", filter.clientKey(anonymous));
+    }
+
+    @Test
+    public void testTokenBucketRefillsAtItsRate() {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(second / 2, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(second / 2));
+        assertTrue(bucket.tryAcquire(second / 2) > 0);
+        // Tras estar inactiva solo acumula hasta la ráfaga
+        long later = 10 * second;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    private HttpResponse<String> send(String method, String path, String client) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                        .header("X-Client-Id", client)
+                        .header("Origin", "http://localhost:3000")
+                        .header("Content-Type", "application/json")
+                        .method(method, "POST".equals(method)
+                                ? HttpRequest.BodyPublishers.ofString("{}")
+                                : HttpRequest.BodyPublishers.noBody())
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,154 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderSortField;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la separación de lecturas y escrituras con dos bases H2 en memoria: la réplica
+ * solo recibe los datos del primario cuando la prueba los copia, como una réplica con retraso
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.datasource.replicas.urls=jdbc:h2:mem:replica-routing-test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "app.datasource.read-your-writes=30s"})
+@ActiveProfiles("h2")
+public class ReplicaRoutingDataSourceTest {
+
+    private static final String BASE_PATH = "/api/v1/purchase-orders";
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        replicate();
+    }
+
+    @Test
+    public void testOnlyUncachedListQueriesUseTheReplica() throws Exception {
+        PurchaseOrder saved = service.save(order("Proveedor Primario"));
+
+        // Las páginas por cursor se leen de la réplica, que aún no tiene la orden
+        assertFalse(firstPage().contains(saved.getId()));
+        // Lo que se guarda en memoria (caché por id, caché del listado) y findAll se leen del primario
+        assertEquals(saved.getVersion(), service.findById(saved.getId()).getVersion());
+        assertTrue(service.findAllWithFilters(PurchaseOrderFilter.none()).stream()
+                .map(PurchaseOrderSummary::id).anyMatch(saved.getId()::equals));
+        assertTrue(repository.findAll().stream().anyMatch(o -> o.getId().equals(saved.getId())));
+        assertTrue(repository.existsByOrderNumber(saved.getOrderNumber()));
+
+        replicate();
+        assertTrue(firstPage().contains(saved.getId()));
+    }
+
+    @Test
+    public void testClientReadsItsOwnWritesFromThePrimary() throws Exception {
+        String body = """
+                {"orderNumber":"%s","supplierName":"Proveedor Replica","totalAmount":120.50,
+                 "currency":"USD","expectedDeliveryDate":"%s"}"""
+                .formatted(service.generateOrderNumber(), LocalDate.now().plusDays(10));
+        HttpResponse<String> created = http.send(HttpRequest.newBuilder(URI.create(url(BASE_PATH)))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(201, created.statusCode(), created.body());
+        String cookie = created.headers().firstValue("Set-Cookie").orElseThrow();
+        assertTrue(cookie.startsWith(ReadYourWritesFilter.COOKIE + "="), cookie);
+
+        long id = JsonMapper.builder().build().readTree(created.body()).get("data").get("id").asLong();
+
+        String page = BASE_PATH + "?limit=" + PurchaseOrderService.MAX_PAGE_SIZE;
+
+        // Otro cliente lee el listado de la réplica, que todavía no tiene la orden
+        assertFalse(get(page, null).body().contains("\"id\":" + id + ","));
+        // El cliente que escribió sigue en el primario mientras envíe la cookie
+        assertTrue(get(page, cookie.substring(0, cookie.indexOf(';'))).body().contains("\"id\":" + id + ","));
+        // La consulta por id pasa por la caché, que siempre se carga del primario
+        assertEquals(200, get(BASE_PATH + "/" + id, null).statusCode());
+    }
+
+    private List<Long> firstPage() {
+        return repository.findPage(PurchaseOrderFilter.none(), null, OrderSortField.ID, Sort.Direction.DESC,
+                null, PurchaseOrderService.MAX_PAGE_SIZE).stream().map(PurchaseOrderSummary::id).toList();
+    }
+
+    private HttpResponse<String> get(String path, String cookie) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url(path))).GET();
+        if (cookie != null) {
+            request.header("Cookie", cookie);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * Copia el esquema y los datos del primario a la réplica
+     */
+    private void replicate() throws Exception {
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            try (Connection primary = connect(ReplicaRoutingDataSource.PRIMARY);
+                 Statement statement = primary.createStatement()) {
+                statement.execute("SCRIPT TO '" + script + "'");
+            }
+            try (Connection replica = connect("replica-1");
+                 Statement statement = replica.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+                statement.execute("RUNSCRIPT FROM '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private Connection connect(String pool) throws Exception {
+        HikariDataSource dataSource = (HikariDataSource) routingDataSource.getResolvedDataSources().get(pool);
+        return DriverManager.getConnection(dataSource.getJdbcUrl(), dataSource.getUsername(), dataSource.getPassword());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+
+    private PurchaseOrder order(String supplier) {
+        return new PurchaseOrder(null, supplier, new BigDecimal("80.00"), Currency.EUR, LocalDate.now().plusDays(15));
+    }
+}
@@ -0,0 +1,105 @@
+package ec.edu.espe.paredes_leccion2.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de las filas registradas por el interceptor de métricas de repositorios
+ */
+public class RepositoryMetricsInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private SampleRepository repository;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        ProxyFactory proxyFactory = new ProxyFactory(new SampleRepositoryImpl());
+        proxyFactory.addAdvice(new RepositoryMetricsInterceptor(() -> registry, "SampleRepository"));
+        repository = (SampleRepository) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void testRowsFollowTheReturnType() {
+        repository.findAll();
+        repository.findOne();
+        repository.updateStatus();
+        repository.count();
+        repository.exists();
+        try (Stream<String> stream = repository.stream()) {
+            assertEquals(4, stream.count());
+        }
+
+        assertRows("findAll", 1, 3);
+        assertRows("findOne", 1, 1);
+        assertRows("updateStatus", 1, 7);
+        assertRows("count", 1, 42);
+        assertRows("stream", 1, 4);
+        // Un boolean no son filas
+        assertRows("exists", 0, 0);
+        assertEquals(1, registry.get("repository.invocations").tag("method", "exists").timer().count());
+    }
+
+    private void assertRows(String method, long count, double total) {
+        DistributionSummary rows = registry.get("repository.rows").tag("method", method).summary();
+        assertEquals(count, rows.count(), method);
+        assertEquals(total, rows.totalAmount(), method);
+    }
+
+    public interface SampleRepository {
+
+        List<String> findAll();
+
+        Optional<String> findOne();
+
+        int updateStatus();
+
+        long count();
+
+        boolean exists();
+
+        Stream<String> stream();
+    }
+
+    static class SampleRepositoryImpl implements SampleRepository {
+
+        @Override
+        public List<String> findAll() {
+            return List.of("a", "b", "c");
+        }
+
+        @Override
+        public Optional<String> findOne() {
+            return Optional.of("a");
+        }
+
+        @Override
+        public int updateStatus() {
+            return 7;
+        }
+
+        @Override
+        public long count() {
+            return 42;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public Stream<String> stream() {
+            return Stream.of("a", "b", "c", "d");
+        }
+    }
+}
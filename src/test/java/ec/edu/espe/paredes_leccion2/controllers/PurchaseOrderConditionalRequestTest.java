@@ -0,0 +1,146 @@
+package ec.edu.espe.paredes_leccion2.controllers;
+
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de GET condicional (If-None-Match) y de actualización condicional (If-Match)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+public class PurchaseOrderConditionalRequestTest {
+
+    private static final String BASE_PATH = "/api/v1/purchase-orders";
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    private PurchaseOrder order;
+
+    @BeforeEach
+    void createOrder() {
+        order = service.save(new PurchaseOrder(null, "Proveedor ETag", new BigDecimal("100.00"),
+                Currency.USD, LocalDate.now().plusDays(30)));
+    }
+
+    @Test
+    void detailReturnsNotModifiedWhileVersionIsUnchanged() throws Exception {
+        HttpResponse<String> first = get(BASE_PATH + "/" + order.getId(), null);
+        String etag = first.headers().firstValue("ETag").orElseThrow();
+        assertEquals(200, first.statusCode());
+        assertFalse(etag.startsWith("W/"));
+
+        HttpResponse<String> second = get(BASE_PATH + "/" + order.getId(), etag);
+        assertEquals(304, second.statusCode());
+        assertTrue(second.body().isEmpty());
+
+        HttpResponse<String> updated = put(order.getId(), etag, "Proveedor ETag 2");
+        assertEquals(200, updated.statusCode());
+        String newEtag = updated.headers().firstValue("ETag").orElseThrow();
+        assertNotEquals(etag, newEtag);
+
+        assertEquals(200, get(BASE_PATH + "/" + order.getId(), etag).statusCode());
+        assertEquals(304, get(BASE_PATH + "/" + order.getId(), newEtag).statusCode());
+    }
+
+    @Test
+    void updateWithStaleIfMatchIsRejected() throws Exception {
+        String etag = get(BASE_PATH + "/" + order.getId(), null).headers().firstValue("ETag").orElseThrow();
+        assertEquals(200, put(order.getId(), etag, "Proveedor ETag 2").statusCode());
+
+        HttpResponse<String> stale = put(order.getId(), etag, "Proveedor ETag 3");
+        assertEquals(412, stale.statusCode());
+        assertEquals("Proveedor ETag 2", service.findById(order.getId()).getSupplierName());
+
+        assertEquals(200, put(order.getId(), "*", "Proveedor ETag 3").statusCode());
+        assertEquals(200, put(order.getId(), null, "Proveedor ETag 4").statusCode());
+    }
+
+    @Test
+    void updateWithoutIfMatchIgnoresAStaleCache() throws Exception {
+        get(BASE_PATH + "/" + order.getId(), null);
+        // Otra instancia modifica la orden sin pasar por esta caché
+        PurchaseOrder other = repository.findById(order.getId()).orElseThrow();
+        other.setSupplierName("Proveedor Externo");
+        repository.saveAndFlush(other);
+
+        HttpResponse<String> updated = put(order.getId(), null, "Proveedor ETag 2");
+        assertEquals(200, updated.statusCode(), updated.body());
+        assertEquals("\"" + (order.getVersion() + 2) + "\"", updated.headers().firstValue("ETag").orElseThrow());
+        assertEquals("Proveedor ETag 2", repository.findById(order.getId()).orElseThrow().getSupplierName());
+    }
+
+    @Test
+    void listReturnsNotModifiedUntilAnOrderChanges() throws Exception {
+        String path = BASE_PATH + "?currency=USD";
+        String etag = get(path, null).headers().firstValue("ETag").orElseThrow();
+
+        assertEquals(304, get(path, etag).statusCode());
+        assertEquals(200, get(BASE_PATH + "?currency=EUR", etag).statusCode());
+
+        put(order.getId(), null, "Proveedor ETag 2");
+        assertEquals(200, get(path, etag).statusCode());
+    }
+
+    @Test
+    void listETagDependsOnPagingAndIsCheckedAfterValidation() throws Exception {
+        String legacy = get(BASE_PATH, null).headers().firstValue("ETag").orElseThrow();
+        String page = get(BASE_PATH + "?limit=10", null).headers().firstValue("ETag").orElseThrow();
+        String otherPage = get(BASE_PATH + "?limit=10&sort=id", null).headers().firstValue("ETag").orElseThrow();
+        assertNotEquals(legacy, page);
+        assertNotEquals(page, otherPage);
+
+        assertEquals(200, get(BASE_PATH + "?limit=10", legacy).statusCode());
+        assertEquals(304, get(BASE_PATH + "?limit=10", page).statusCode());
+        // Un parámetro inválido responde 400 aunque el ETag coincida
+        assertEquals(400, get(BASE_PATH + "?limit=0", page).statusCode());
+        assertEquals(400, get(BASE_PATH + "?limit=10&cursor=invalido", page).statusCode());
+    }
+
+    private HttpResponse<String> get(String path, String ifNoneMatch) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> put(Long id, String ifMatch, String supplierName) throws Exception {
+        String body = """
+                {"orderNumber":"%s","supplierName":"%s","status":"DRAFT","totalAmount":100.00,
+                 "currency":"USD","expectedDeliveryDate":"%s"}
+                """.formatted(order.getOrderNumber(), supplierName, LocalDate.now().plusDays(30));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + BASE_PATH + "/" + id))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(body));
+        if (ifMatch != null) {
+            request.header("If-Match", ifMatch);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,113 @@
+package ec.edu.espe.paredes_leccion2.controllers;
+
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de negociación de contenido (JSON, CBOR, Smile) y compresión gzip de JSON
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+public class PurchaseOrderContentNegotiationTest {
+
+    private static final String BASE_PATH = "/api/v1/purchase-orders";
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void listIsAvailableInJsonCborAndSmile() throws Exception {
+        for (int i = 0; i < 40; i++) {
+            service.save(new PurchaseOrder(null, "Proveedor Formatos " + i, new BigDecimal("10.25"),
+                    Currency.EUR, LocalDate.now().plusDays(5)));
+        }
+        String query = BASE_PATH + "?q=Formatos";
+
+        HttpResponse<byte[]> json = get(query, "application/json");
+        assertEquals("gzip", json.headers().firstValue("Content-Encoding").orElse(null));
+        assertTrue(json.headers().allValues("Vary").stream().anyMatch(v -> v.toLowerCase().contains("accept,") || v.equalsIgnoreCase("accept")));
+        JsonNode expected = JsonMapper.builder().build().readTree(new GZIPInputStream(new ByteArrayInputStream(json.body())));
+        assertEquals(40, expected.get("count").asInt());
+
+        Map<String, ObjectMapper> binary = Map.of(
+                "application/cbor", CBORMapper.builder().build(),
+                "application/x-jackson-smile", SmileMapper.builder().build());
+        for (Map.Entry<String, ObjectMapper> format : binary.entrySet()) {
+            HttpResponse<byte[]> response = get(query, format.getKey());
+            assertEquals(200, response.statusCode());
+            assertEquals(format.getKey(), response.headers().firstValue("Content-Type").orElseThrow());
+            assertTrue(response.body().length < json.body().length * 10);
+
+            JsonNode body = format.getValue().readTree(response.body());
+            assertEquals(40, body.get("count").asInt());
+            for (int i = 0; i < 40; i++) {
+                JsonNode row = body.get("data").get(i);
+                JsonNode expectedRow = expected.get("data").get(i);
+                assertEquals(expectedRow.get("orderNumber").asString(), row.get("orderNumber").asString());
+                assertEquals(expectedRow.get("createdAt").asString(), row.get("createdAt").asString());
+                assertEquals(0, expectedRow.get("totalAmount").decimalValue().compareTo(row.get("totalAmount").decimalValue()));
+            }
+        }
+    }
+
+    @Test
+    void cborRequestBodyAndErrorsAreNegotiated() throws Exception {
+        CBORMapper cbor = CBORMapper.builder().build();
+        PurchaseOrder order = new PurchaseOrder(service.generateOrderNumber(), "Proveedor CBOR", new BigDecimal("99.90"),
+                Currency.USD, LocalDate.now().plusDays(3));
+
+        HttpResponse<byte[]> created = http.send(HttpRequest.newBuilder(URI.create(url(BASE_PATH)))
+                        .header("Content-Type", "application/cbor")
+                        .header("Accept", "application/cbor")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(cbor.writeValueAsBytes(order)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(201, created.statusCode());
+        JsonNode data = cbor.readTree(created.body()).get("data");
+        assertEquals("Proveedor CBOR", data.get("supplierName").asString());
+
+        HttpResponse<byte[]> missing = get(BASE_PATH + "/999999", "application/cbor");
+        assertEquals(404, missing.statusCode());
+        assertEquals(404, cbor.readTree(missing.body()).get("status").asInt());
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept) throws Exception {
+        return http.send(HttpRequest.newBuilder(URI.create(url(path)))
+                        .header("Accept", accept)
+                        .header("Accept-Encoding", "gzip")
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + port + path;
+    }
+}
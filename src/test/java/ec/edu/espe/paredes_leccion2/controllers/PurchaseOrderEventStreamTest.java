@@ -0,0 +1,174 @@
+package ec.edu.espe.paredes_leccion2.controllers;
+
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderPatch;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderEventPublisher;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del flujo de eventos SSE de órdenes
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+public class PurchaseOrderEventStreamTest {
+
+    private static final String BASE_PATH = "/api/v1/purchase-orders";
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    void streamDeliversOnlyEventsMatchingTheFilter() throws Exception {
+        HttpResponse<Stream<String>> response = http.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + BASE_PATH + "/events?status=approved"))
+                        .header("Accept", "text/event-stream").GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElseThrow().startsWith("text/event-stream"));
+
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> {
+            try {
+                response.body().forEach(lines::add);
+            } catch (UncheckedIOException e) {
+                // Conexión cerrada al terminar la prueba
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            assertEquals("ready", nextEvent(lines).get(0));
+
+            service.save(order("Proveedor SSE Borrador", OrderStatus.DRAFT));
+            PurchaseOrder approved = service.save(order("Proveedor SSE Aprobado", OrderStatus.APPROVED));
+
+            List<String> created = nextEvent(lines);
+            assertEquals("created", created.get(0));
+            assertTrue(created.get(1).contains("Proveedor SSE Aprobado"));
+
+            // Sale del filtro: se envía para que el cliente la quite de su listado
+            service.patch(approved.getId(), new PurchaseOrderPatch(null, null, "CANCELLED", null, null, null), null);
+            List<String> updated = nextEvent(lines);
+            assertEquals("updated", updated.get(0));
+            assertTrue(updated.get(1).contains("\"status\":\"CANCELLED\""));
+
+            PurchaseOrder other = service.save(order("Proveedor SSE Otro", OrderStatus.APPROVED));
+            assertEquals("created", nextEvent(lines).get(0));
+            service.deleteById(other.getId());
+            List<String> deleted = nextEvent(lines);
+            assertEquals("deleted", deleted.get(0));
+            assertEquals("{\"id\":" + other.getId() + "}", deleted.get(1));
+        } finally {
+            response.body().close();
+        }
+    }
+
+    @Test
+    void invalidFilterIsRejected() throws Exception {
+        HttpResponse<String> response = http.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + BASE_PATH + "/events?currency=GBP"))
+                        .GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(400, response.statusCode());
+    }
+
+    @Test
+    void concurrentSubscriptionsNeverExceedTheLimit() throws Exception {
+        PurchaseOrderEventPublisher publisher = new PurchaseOrderEventPublisher();
+        ReflectionTestUtils.setField(publisher, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(publisher, "bufferSize", 16);
+        ReflectionTestUtils.setField(publisher, "maxSubscribers", 5);
+        ReflectionTestUtils.setField(publisher, "timeout", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(publisher, "heartbeat", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(publisher, "init");
+
+        int clients = 32;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<SseEmitter>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return publisher.subscribe(null, null);
+                }));
+            }
+            start.countDown();
+            int accepted = 0;
+            for (Future<SseEmitter> future : futures) {
+                if (future.get() != null) {
+                    accepted++;
+                }
+            }
+            assertEquals(5, accepted);
+        } finally {
+            executor.shutdown();
+            ReflectionTestUtils.invokeMethod(publisher, "shutdown");
+        }
+    }
+
+    private PurchaseOrder order(String supplier, OrderStatus status) {
+        PurchaseOrder order = new PurchaseOrder(null, supplier, new BigDecimal("50.00"),
+                Currency.USD, LocalDate.now().plusDays(10));
+        order.setStatus(status);
+        return order;
+    }
+
+    /**
+     * Lee el siguiente evento (ignora comentarios) y devuelve su nombre y sus datos
+     */
+    private List<String> nextEvent(BlockingQueue<String> lines) throws InterruptedException {
+        String name = null;
+        List<String> data = new ArrayList<>();
+        while (true) {
+            String line = lines.poll(10, TimeUnit.SECONDS);
+            assertNotNull(line, "No llegó el evento a tiempo");
+            if (line.isEmpty()) {
+                if (name != null) {
+                    return List.of(name, String.join("\n", data));
+                }
+            } else if (line.startsWith("event:")) {
+                name = line.substring("event:".length());
+            } else if (line.startsWith("data:")) {
+                data.add(line.substring("data:".length()));
+            }
+        }
+    }
+}
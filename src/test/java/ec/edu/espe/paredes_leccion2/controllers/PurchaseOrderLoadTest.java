@@ -0,0 +1,403 @@
+package ec.edu.espe.paredes_leccion2.controllers;
+
+import ec.edu.espe.paredes_leccion2.models.dto.BatchItemResult;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de extremo a extremo de la API de órdenes sobre H2 en memoria.
+ *
+ * Siembra órdenes, ejecuta una mezcla fija de operaciones (crear, listar con filtros, ver
+ * detalle, actualizar y eliminar) con una concurrencia fija y escribe un reporte JSON con
+ * p50/p95/p99 y rendimiento por endpoint. Cada cliente tiene una cuota fija de operaciones y
+ * elige el tipo de cada una con su propia semilla, así cada corrida ejecuta la misma secuencia
+ * de tipos por cliente y los reportes de distintos commits se pueden comparar. Las órdenes sobre
+ * las que se actúa (detalle, actualización, eliminación) salen de un conjunto compartido entre
+ * clientes y dependen del entrelazado, por lo que pueden variar entre corridas.
+ *
+ * Solo se ejecuta de forma explícita:
+ * mvn test -Dtest=PurchaseOrderLoadTest -Dloadtest=true [-Dloadtest.orders=10000]
+ *     [-Dloadtest.operations=20000] [-Dloadtest.concurrency=16] [-Dloadtest.label=abc123]
+ *     [-Dloadtest.report=target/load-test/report.json]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class PurchaseOrderLoadTest {
+
+    private static final String BASE_PATH = "/api/v1/purchase-orders";
+    private static final long SEED = 42L;
+
+    /**
+     * Operaciones de la mezcla y su peso (porcentaje)
+     */
+    enum Operation {
+        CREATE("POST " + BASE_PATH, 10),
+        LIST("GET " + BASE_PATH, 45),
+        DETAIL("GET " + BASE_PATH + "/{id}", 30),
+        UPDATE("PUT " + BASE_PATH + "/{id}", 10),
+        DELETE("DELETE " + BASE_PATH + "/{id}", 5);
+
+        private final String endpoint;
+        private final int weight;
+
+        Operation(String endpoint, int weight) {
+            this.endpoint = endpoint;
+            this.weight = weight;
+        }
+    }
+
+    private static final String[] LIST_QUERIES = {
+            "?status=APPROVED&limit=50",
+            "?currency=EUR&minTotal=500&limit=50&sort=totalAmount&direction=asc",
+            "?q=proveedor%2012&limit=50",
+            "?status=SUBMITTED&currency=USD&minTotal=950",
+            "?limit=50"
+    };
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final AtomicInteger orderNumbers = new AtomicInteger();
+
+    @Test
+    public void mixedWorkload() throws Exception {
+        int orders = Integer.getInteger("loadtest.orders", 10_000);
+        int operations = Integer.getInteger("loadtest.operations", 20_000);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 16);
+        int warmup = Integer.getInteger("loadtest.warmup", Math.max(operations / 10, 1));
+        Path reportPath = Path.of(System.getProperty("loadtest.report", "target/load-test/report.json"));
+
+        LiveOrders live = seed(orders);
+
+        run(live, warmup, concurrency, SEED - 1);
+
+        long start = System.nanoTime();
+        Map<Operation, Recorder> recorders = run(live, operations, concurrency, SEED);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        Map<String, Object> report = report(recorders, orders, operations, concurrency, warmup, elapsedSeconds);
+        Files.createDirectories(reportPath.toAbsolutePath().getParent());
+        Files.writeString(reportPath, objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+
+        recorders.forEach((operation, recorder) -> System.out.printf(
+                "%-40s n=%-6d err=%-4d p50=%7.2fms p95=%7.2fms p99=%7.2fms %8.1f ops/s%n",
+                operation.endpoint, recorder.count(), recorder.errors, recorder.percentileMillis(50),
+                recorder.percentileMillis(95), recorder.percentileMillis(99), recorder.count() / elapsedSeconds));
+        System.out.println("Reporte: " + reportPath.toAbsolutePath());
+
+        long errors = recorders.values().stream().mapToLong(recorder -> recorder.errors).sum();
+        assertTrue(errors <= operations / 100, "Demasiadas respuestas con error: " + errors);
+    }
+
+    /**
+     * Siembra las órdenes iniciales con la creación en lote
+     */
+    private LiveOrders seed(int orders) {
+        OrderStatus[] statuses = OrderStatus.values();
+        Random random = new Random(SEED);
+        LiveOrders live = new LiveOrders();
+
+        for (int start = 0; start < orders; start += 5000) {
+            List<PurchaseOrder> batch = new ArrayList<>();
+            for (int i = start; i < Math.min(start + 5000, orders); i++) {
+                PurchaseOrder order = new PurchaseOrder(nextOrderNumber(), "Proveedor " + (i % 500),
+                        BigDecimal.valueOf(1000 + random.nextInt(100_000), 2),
+                        random.nextBoolean() ? Currency.USD : Currency.EUR, LocalDate.now().plusDays(30));
+                order.setStatus(statuses[random.nextInt(statuses.length)]);
+                batch.add(order);
+            }
+            List<BatchItemResult> results = service.saveAll(batch);
+            for (int i = 0; i < results.size(); i++) {
+                BatchItemResult result = results.get(i);
+                assertTrue(result.isCreated(), () -> String.valueOf(result.errors()));
+                live.add(result.id(), result.orderNumber(), batch.get(i).getStatus());
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Ejecuta {@code operations} operaciones con {@code concurrency} clientes en lazo cerrado,
+     * repartidas en cuotas fijas por cliente
+     */
+    private Map<Operation, Recorder> run(LiveOrders live, int operations, int concurrency, long seed)
+            throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<Map<Operation, Recorder>>> futures = new ArrayList<>();
+
+        for (int w = 0; w < concurrency; w++) {
+            int quota = operations / concurrency + (w < operations % concurrency ? 1 : 0);
+            // El tipo de operación usa su propio generador: los datos no alteran la secuencia
+            Random mix = new Random(seed * 31 + w);
+            Random data = new Random(seed * 31 + w + 1_000_003);
+            futures.add(workers.submit(() -> {
+                Map<Operation, Recorder> recorders = newRecorders();
+                for (int i = 0; i < quota; i++) {
+                    execute(pick(mix), live, data, recorders);
+                }
+                return recorders;
+            }));
+        }
+
+        Map<Operation, Recorder> merged = newRecorders();
+        for (Future<Map<Operation, Recorder>> future : futures) {
+            future.get().forEach((operation, recorder) -> merged.get(operation).merge(recorder));
+        }
+        workers.shutdown();
+        return merged;
+    }
+
+    private void execute(Operation operation, LiveOrders live, Random random,
+                         Map<Operation, Recorder> recorders) throws IOException, InterruptedException {
+        HttpRequest request;
+        int expected;
+        switch (operation) {
+            case CREATE -> {
+                OrderStatus[] statuses = OrderStatus.values();
+                request = json(BASE_PATH, "POST", orderJson(nextOrderNumber(),
+                        statuses[random.nextInt(statuses.length)], random));
+                expected = 201;
+            }
+            case LIST -> {
+                request = HttpRequest.newBuilder(uri(BASE_PATH + LIST_QUERIES[random.nextInt(LIST_QUERIES.length)]))
+                        .GET().build();
+                expected = 200;
+            }
+            case DETAIL -> {
+                LiveOrders.Entry entry = live.random(random);
+                request = HttpRequest.newBuilder(uri(BASE_PATH + "/" + entry.id())).GET().build();
+                expected = 200;
+            }
+            case UPDATE -> {
+                LiveOrders.Entry entry = live.random(random);
+                // Se conserva el estado: PUT rechaza las transiciones no permitidas
+                request = json(BASE_PATH + "/" + entry.id(), "PUT",
+                        orderJson(entry.orderNumber(), entry.status(), random));
+                expected = 200;
+            }
+            default -> {
+                LiveOrders.Entry entry = live.removeRandom(random);
+                request = HttpRequest.newBuilder(uri(BASE_PATH + "/" + entry.id())).DELETE().build();
+                expected = 200;
+            }
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        long latency = System.nanoTime() - start;
+
+        Recorder recorder = recorders.get(operation);
+        recorder.record(latency);
+        if (response.statusCode() != expected) {
+            recorder.errors++;
+        } else if (operation == Operation.CREATE) {
+            Map<?, ?> body = objectMapper.readValue(response.body(), Map.class);
+            Map<?, ?> data = (Map<?, ?>) body.get("data");
+            live.add(((Number) data.get("id")).longValue(), (String) data.get("orderNumber"),
+                    OrderStatus.valueOf((String) data.get("status")));
+        }
+    }
+
+    private Operation pick(Random random) {
+        int roll = random.nextInt(100);
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return Operation.LIST;
+    }
+
+    private Map<String, Object> report(Map<Operation, Recorder> recorders, int orders, int operations,
+                                       int concurrency, int warmup, double elapsedSeconds) {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("seededOrders", orders);
+        config.put("operations", operations);
+        config.put("warmupOperations", warmup);
+        config.put("concurrency", concurrency);
+        config.put("seed", SEED);
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            mix.put(operation.endpoint, operation.weight);
+        }
+        config.put("mix", mix);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        Recorder all = new Recorder();
+        recorders.forEach((operation, recorder) -> {
+            endpoints.put(operation.endpoint, recorder.summary(elapsedSeconds));
+            all.merge(recorder);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", System.getProperty("loadtest.label", ""));
+        report.put("timestamp", Instant.now().toString());
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("config", config);
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("overall", all.summary(elapsedSeconds));
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private Map<Operation, Recorder> newRecorders() {
+        Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder());
+        }
+        return recorders;
+    }
+
+    private String orderJson(String orderNumber, OrderStatus status, Random random) {
+        return "{\"orderNumber\":\"" + orderNumber + "\"," +
+                "\"supplierName\":\"Proveedor " + random.nextInt(500) + "\"," +
+                "\"status\":\"" + status + "\"," +
+                "\"totalAmount\":" + BigDecimal.valueOf(1000 + random.nextInt(100_000), 2) + "," +
+                "\"currency\":\"" + (random.nextBoolean() ? "USD" : "EUR") + "\"," +
+                "\"expectedDeliveryDate\":\"" + LocalDate.now().plusDays(30) + "\"}";
+    }
+
+    /**
+     * Números de un año fijo que no choca con los que genera la aplicación
+     */
+    private String nextOrderNumber() {
+        return String.format("PO-2099-%06d", orderNumbers.incrementAndGet());
+    }
+
+    private HttpRequest json(String path, String method, String body) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    /**
+     * Latencias de un endpoint (en nanosegundos) registradas por un cliente
+     */
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long nanos) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+
+        int count() {
+            return size;
+        }
+
+        double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return sorted[Math.max(rank, 0)] / 1e6;
+        }
+
+        Map<String, Object> summary(double elapsedSeconds) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", size);
+            summary.put("errors", errors);
+            summary.put("throughputPerSecond", size / elapsedSeconds);
+            summary.put("p50Millis", percentileMillis(50));
+            summary.put("p95Millis", percentileMillis(95));
+            summary.put("p99Millis", percentileMillis(99));
+            summary.put("maxMillis", percentileMillis(100));
+            return summary;
+        }
+    }
+
+    /**
+     * Ids, números y estados de las órdenes que existen, para elegir al azar cuál leer, actualizar o eliminar
+     */
+    private static final class LiveOrders {
+
+        record Entry(long id, String orderNumber, OrderStatus status) {
+        }
+
+        private final List<Entry> entries = new ArrayList<>();
+
+        synchronized void add(long id, String orderNumber, OrderStatus status) {
+            entries.add(new Entry(id, orderNumber, status));
+        }
+
+        synchronized Entry random(Random random) {
+            return entries.get(random.nextInt(entries.size()));
+        }
+
+        synchronized Entry removeRandom(Random random) {
+            int index = random.nextInt(entries.size());
+            Entry entry = entries.get(index);
+            Entry last = entries.remove(entries.size() - 1);
+            if (index < entries.size()) {
+                entries.set(index, last);
+            }
+            return entry;
+        }
+    }
+}
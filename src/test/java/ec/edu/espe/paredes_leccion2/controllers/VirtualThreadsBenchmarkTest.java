@@ -0,0 +1,248 @@
+package ec.edu.espe.paredes_leccion2.controllers;
+
+import ec.edu.espe.paredes_leccion2.ParedesLeccion2Application;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara hilos de plataforma con hilos virtuales (más el semáforo de base de datos) con
+ * muchos clientes concurrentes.
+ *
+ * La mitad de las solicitudes son listados que usan la base de datos y la otra mitad son
+ * consultas de estadísticas que se responden desde memoria. Como H2 corre en el mismo proceso,
+ * cada sentencia JDBC espera app.benchmark.db-latency-ms para simular el viaje de red a MySQL.
+ * Con hilos de plataforma los listados ocupan los hilos de Tomcat mientras esperan conexión y
+ * las estadísticas quedan en cola detrás de ellos; con hilos virtuales solo los listados esperan.
+ *
+ * Requiere Java 21 y solo se ejecuta de forma explícita:
+ * mvn test -Dtest=VirtualThreadsBenchmarkTest -Dbenchmark=true [-Dbenchmark.clients=1000]
+ *     [-Dbenchmark.requests=20000] [-Dbenchmark.db-latency-ms=5]
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class VirtualThreadsBenchmarkTest {
+
+    private static final String BASE_PATH = "/api/v1/purchase-orders";
+    private static final int SEEDED_ORDERS = 2000;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @Test
+    public void comparePlatformWithVirtualThreads() throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 1000);
+        int requests = Integer.getInteger("benchmark.requests", 20_000);
+        long latencyMillis = Long.getLong("benchmark.db-latency-ms", 5);
+
+        Result platform = run("platform", false, clients, requests, latencyMillis);
+        Result virtual = run("virtual", true, clients, requests, latencyMillis);
+
+        System.out.printf("%-9s %10s %14s %14s %14s %14s %8s%n", "threads", "req/s",
+                "list p50 ms", "list p99 ms", "stats p50 ms", "stats p99 ms", "errors");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-9s %10.0f %14.1f %14.1f %14.1f %14.1f %8d%n", result.mode, result.throughput,
+                    result.list.percentile(50), result.list.percentile(99),
+                    result.stats.percentile(50), result.stats.percentile(99), result.errors);
+        }
+    }
+
+    private Result run(String mode, boolean virtualThreads, int clients, int requests, long latencyMillis)
+            throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ParedesLeccion2Application.class)
+                .profiles("h2")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "app.db-concurrency.enabled=" + virtualThreads)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(delayStatements(latencyMillis)))
+                .run();
+        try {
+            seed(context.getBean(PurchaseOrderService.class));
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+
+            // Calentamiento
+            drive(port, Math.min(clients, 50), 1000);
+
+            long start = System.nanoTime();
+            Result result = drive(port, clients, requests);
+            result.mode = mode;
+            result.throughput = requests / ((System.nanoTime() - start) / 1e9);
+            return result;
+        } finally {
+            context.close();
+        }
+    }
+
+    private Result drive(int port, int clients, int requests) throws Exception {
+        String[] statuses = Arrays.stream(OrderStatus.values()).map(Enum::name).toArray(String[]::new);
+        AtomicInteger remaining = new AtomicInteger(requests);
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Result>> futures = new ArrayList<>();
+
+        for (int c = 0; c < clients; c++) {
+            Random random = new Random(c);
+            futures.add(pool.submit(() -> {
+                Result partial = new Result();
+                while (remaining.getAndDecrement() > 0) {
+                    boolean list = random.nextBoolean();
+                    String path = list
+                            ? BASE_PATH + "?limit=20&status=" + statuses[random.nextInt(statuses.length)]
+                            : BASE_PATH + "/stats";
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                            .GET().build();
+
+                    long start = System.nanoTime();
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    long elapsed = System.nanoTime() - start;
+
+                    (list ? partial.list : partial.stats).record(elapsed);
+                    if (response.statusCode() != 200) {
+                        partial.errors++;
+                    }
+                }
+                return partial;
+            }));
+        }
+
+        Result merged = new Result();
+        for (Future<Result> future : futures) {
+            Result partial = future.get();
+            merged.list.merge(partial.list);
+            merged.stats.merge(partial.stats);
+            merged.errors += partial.errors;
+        }
+        pool.shutdown();
+        return merged;
+    }
+
+    private void seed(PurchaseOrderService service) {
+        OrderStatus[] statuses = OrderStatus.values();
+        List<PurchaseOrder> orders = new ArrayList<>();
+        for (int i = 0; i < SEEDED_ORDERS; i++) {
+            PurchaseOrder order = new PurchaseOrder(null, "Proveedor " + i, BigDecimal.valueOf(100 + i),
+                    i % 2 == 0 ? Currency.USD : Currency.EUR, LocalDate.now().plusDays(30));
+            order.setStatus(statuses[i % statuses.length]);
+            orders.add(order);
+        }
+        assertTrue(service.saveAll(orders).stream().allMatch(result -> result.isCreated()));
+    }
+
+    /**
+     * Envuelve el DataSource para que cada ejecución de sentencia espere {@code latencyMillis}
+     */
+    private static BeanPostProcessor delayStatements(long latencyMillis) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || latencyMillis <= 0) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        return delayingConnection(super.getConnection(), latencyMillis);
+                    }
+                };
+            }
+        };
+    }
+
+    private static Connection delayingConnection(Connection connection, long latencyMillis) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement statement) {
+                        return delayingStatement(statement, latencyMillis);
+                    }
+                    return result;
+                });
+    }
+
+    private static PreparedStatement delayingStatement(PreparedStatement statement, long latencyMillis) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        Thread.sleep(latencyMillis);
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static final class Result {
+
+        private String mode;
+        private double throughput;
+        private final Latencies list = new Latencies();
+        private final Latencies stats = new Latencies();
+        private long errors;
+    }
+
+    private static final class Latencies {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+
+        void merge(Latencies other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.values[i]);
+            }
+        }
+
+        double percentile(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted[Math.max((int) Math.ceil(percentile / 100.0 * size) - 1, 0)] / 1e6;
+        }
+    }
+}
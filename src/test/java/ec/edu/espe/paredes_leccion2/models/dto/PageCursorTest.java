@@ -0,0 +1,42 @@
+package ec.edu.espe.paredes_leccion2.models.dto;
+
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderSortField;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del cursor de paginación por keyset
+ */
+public class PageCursorTest {
+
+    @Test
+    public void testEncodeDecodeRoundTrip() {
+        PageCursor cursor = new PageCursor(OrderSortField.CREATED_AT, Sort.Direction.DESC,
+                "2025-01-01T10:00", 42L, PurchaseOrderFilter.none().fingerprint());
+
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    public void testDecodeRejectsTamperedCursor() {
+        assertThrows(ValidationException.class, () -> PageCursor.decode("no-es-un-cursor"));
+
+        String wrongValue = new PageCursor(OrderSortField.TOTAL_AMOUNT, Sort.Direction.ASC,
+                "abc", 1L, 0).encode();
+        assertThrows(ValidationException.class, () -> PageCursor.decode(wrongValue));
+    }
+
+    @Test
+    public void testFingerprintIsStableForEqualFilters() {
+        PurchaseOrderFilter a = new PurchaseOrderFilter("acme", null, null, null, null, null, null);
+        PurchaseOrderFilter b = new PurchaseOrderFilter("acme", null, null, null, null, null, null);
+
+        assertEquals(a.fingerprint(), b.fingerprint());
+        assertNotEquals(a.fingerprint(), PurchaseOrderFilter.none().fingerprint());
+    }
+}
@@ -0,0 +1,92 @@
+package ec.edu.espe.paredes_leccion2.repositories;
+
+import ec.edu.espe.paredes_leccion2.models.dto.BatchItemResult;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.services.PurchaseOrderService;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la inserción masiva con batches JDBC
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class PurchaseOrderBatchWriterTest {
+
+    @Autowired
+    private PurchaseOrderBatchWriter batchWriter;
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testEachOrderGetsItsGeneratedId() {
+        List<BatchItemResult> results = service.saveAll(List.of(order("PO-2094-000001"), order("PO-2094-000002")));
+
+        for (BatchItemResult result : results) {
+            assertTrue(result.isCreated(), () -> String.valueOf(result.errors()));
+            assertEquals(result.orderNumber(), repository.findById(result.id()).orElseThrow().getOrderNumber());
+        }
+    }
+
+    @Test
+    public void testMissingGeneratedKeysFailTheWholeChunk() {
+        // El driver devuelve una clave menos que filas insertadas
+        JdbcTemplate missingKey = Mockito.mock(JdbcTemplate.class, AdditionalAnswers.delegatesTo(jdbcTemplate));
+        Mockito.doAnswer(invocation -> {
+            KeyHolder keyHolder = invocation.getArgument(2);
+            int[] counts = jdbcTemplate.batchUpdate(invocation.<PreparedStatementCreator>getArgument(0),
+                    invocation.<BatchPreparedStatementSetter>getArgument(1), keyHolder);
+            keyHolder.getKeyList().remove(keyHolder.getKeyList().size() - 1);
+            return counts;
+        }).when(missingKey).batchUpdate(ArgumentMatchers.any(PreparedStatementCreator.class),
+                ArgumentMatchers.any(BatchPreparedStatementSetter.class), ArgumentMatchers.any(KeyHolder.class));
+
+        PurchaseOrderBatchWriter target = AopTestUtils.getUltimateTargetObject(batchWriter);
+        List<PurchaseOrder> orders = List.of(order("PO-2094-000011"), order("PO-2094-000012"));
+        ReflectionTestUtils.setField(target, "jdbcTemplate", missingKey);
+        List<BatchItemResult> results;
+        try {
+            results = service.saveAll(orders);
+        } finally {
+            ReflectionTestUtils.setField(target, "jdbcTemplate", jdbcTemplate);
+        }
+
+        for (BatchItemResult result : results) {
+            assertFalse(result.isCreated());
+            assertNull(result.id());
+            // La transacción del lote se deshizo: ninguna fila quedó insertada
+            assertFalse(repository.existsByOrderNumber(result.orderNumber()));
+        }
+        orders.forEach(order -> assertNull(order.getId()));
+    }
+
+    private PurchaseOrder order(String orderNumber) {
+        return new PurchaseOrder(orderNumber, "Proveedor Batch", new BigDecimal("80.00"),
+                Currency.USD, LocalDate.now().plusDays(10));
+    }
+}
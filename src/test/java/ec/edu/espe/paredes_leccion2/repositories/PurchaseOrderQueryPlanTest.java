@@ -0,0 +1,147 @@
+package ec.edu.espe.paredes_leccion2.repositories;
+
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica con EXPLAIN que el SQL generado para el listado filtrado usa los índices
+ * compuestos de purchase_orders (H2 en modo MySQL)
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderQueryPlanTest$SqlCapture",
+        // Valores literales en el SQL para poder ejecutar EXPLAIN sin parámetros
+        "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline"
+})
+@ActiveProfiles("h2")
+public class PurchaseOrderQueryPlanTest {
+
+    private static final int ROWS = 5000;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        if (repository.count() == 0) {
+            seed();
+        }
+    }
+
+    @Test
+    public void testCatchAllConditionsAreNotGenerated() {
+        String sql = capture(filter(OrderStatus.APPROVED, null, null, null, null));
+
+        assertFalse(sql.contains(" is null"), sql);
+        assertFalse(sql.contains(" like "), sql);
+    }
+
+    @Test
+    public void testStatusAndDateRangeUsesStatusIndex() {
+        String plan = explain(filter(OrderStatus.APPROVED, null, null,
+                LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0)));
+
+        assertTrue(plan.contains("idx_po_status_created_at"), plan);
+    }
+
+    @Test
+    public void testCurrencyAndDateRangeUsesCurrencyIndex() {
+        String plan = explain(filter(null, Currency.EUR, null,
+                LocalDateTime.of(2025, 3, 1, 0, 0), null));
+
+        assertTrue(plan.contains("idx_po_currency_created_at"), plan);
+    }
+
+    @Test
+    public void testStatusCurrencyAndAmountUsesCompositeIndex() {
+        String plan = explain(filter(OrderStatus.SUBMITTED, Currency.USD, new BigDecimal("900"), null, null));
+
+        assertTrue(plan.contains("idx_po_status_currency_total"), plan);
+    }
+
+    private PurchaseOrderFilter filter(OrderStatus status, Currency currency, BigDecimal minTotal,
+                                       LocalDateTime from, LocalDateTime to) {
+        return new PurchaseOrderFilter(null, status, currency, minTotal, null, from, to);
+    }
+
+    private String capture(PurchaseOrderFilter filter) {
+        SqlCapture.clear();
+        repository.findWithFilters(filter);
+        return SqlCapture.last().toLowerCase(Locale.ROOT);
+    }
+
+    private String explain(PurchaseOrderFilter filter) {
+        String sql = capture(filter);
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class))
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private void seed() {
+        OrderStatus[] statuses = OrderStatus.values();
+        Currency[] currencies = Currency.values();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{
+                    String.format("PO-2025-%06d", i + 1),
+                    "Proveedor " + (i % 97),
+                    statuses[i % statuses.length].name(),
+                    BigDecimal.valueOf(10 + (i * 7919L) % 1000),
+                    currencies[(i / statuses.length) % currencies.length].name(),
+                    Timestamp.valueOf(start.plusHours(i * 3L)),
+                    LocalDate.of(2030, 1, 1)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO purchase_orders (order_number, supplier_name, status, " +
+                "total_amount, currency, created_at, expected_delivery_date) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    /**
+     * Guarda el último SELECT emitido por Hibernate
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        private static final List<String> statements = new ArrayList<>();
+
+        static synchronized void clear() {
+            statements.clear();
+        }
+
+        static synchronized String last() {
+            assertFalse(statements.isEmpty(), "No se capturó ninguna consulta");
+            return statements.get(statements.size() - 1);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                synchronized (SqlCapture.class) {
+                    statements.add(sql);
+                }
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.repositories.OrderNumberSequenceRepository;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del generador de números de orden por bloques
+ */
+@SpringBootTest(properties = "app.order-number.block-size=5")
+@ActiveProfiles("h2")
+public class OrderNumberAllocatorTest {
+
+    @Autowired
+    private OrderNumberAllocator allocator;
+
+    @Autowired
+    private OrderNumberSequenceRepository sequenceRepository;
+
+    @Autowired
+    private PurchaseOrderRepository purchaseOrderRepository;
+
+    @Test
+    public void testConcurrentAllocationsAreUniqueAcrossBlockRefills() throws Exception {
+        int threads = 8;
+        int perThread = 100;
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        assertTrue(numbers.add(allocator.next(2091)), "Número repetido");
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Con bloques de 5 se reservaron 160 bloques sin repetir ni saltar números
+        assertEquals(threads * perThread, numbers.size());
+        assertTrue(numbers.contains("PO-2091-000001"));
+        assertTrue(numbers.contains(String.format("PO-2091-%06d", threads * perThread)));
+        assertEquals(threads * perThread + 1, sequenceRepository.findById(2091).orElseThrow().getNextValue());
+    }
+
+    @Test
+    public void testFirstBlockStartsAfterExistingOrders() {
+        purchaseOrderRepository.save(new PurchaseOrder("PO-2092-000041", "Proveedor Secuencia",
+                new BigDecimal("10.00"), Currency.USD, LocalDate.now().plusDays(10)));
+
+        assertEquals("PO-2092-000042", allocator.next(2092));
+        assertEquals("PO-2092-000043", allocator.next(2092));
+    }
+
+    @Test
+    public void testBlockReservationIsRetriedAfterALockFailure() {
+        OrderNumberSequenceRepository failingOnce = Mockito.mock(OrderNumberSequenceRepository.class,
+                AdditionalAnswers.delegatesTo(sequenceRepository));
+        Mockito.doThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"))
+                .doAnswer(AdditionalAnswers.delegatesTo(sequenceRepository))
+                .when(failingOnce).findForUpdate(2093);
+
+        ReflectionTestUtils.setField(allocator, "sequenceRepository", failingOnce);
+        try {
+            assertEquals("PO-2093-000001", allocator.next(2093));
+        } finally {
+            ReflectionTestUtils.setField(allocator, "sequenceRepository", sequenceRepository);
+        }
+        Mockito.verify(failingOnce, Mockito.times(2)).findForUpdate(2093);
+    }
+}
@@ -0,0 +1,76 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.dto.BatchItemResult;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comparación de filas por segundo entre la creación una a una y la creación en lote.
+ *
+ * Solo se ejecuta de forma explícita:
+ * mvn test -Dtest=PurchaseOrderBatchBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=5000]
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class PurchaseOrderBatchBenchmarkTest {
+
+    private static final int WARMUP_ROWS = 500;
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Test
+    public void compareOneByOneWithBatchInsert() {
+        int rows = Integer.getInteger("benchmark.rows", 5000);
+
+        // Calentamiento de ambos caminos
+        insertOneByOne(WARMUP_ROWS);
+        insertBatch(WARMUP_ROWS);
+
+        long start = System.nanoTime();
+        insertOneByOne(rows);
+        double oneByOneRate = rows / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        insertBatch(rows);
+        double batchRate = rows / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("Creación una a una: %.0f filas/s%n", oneByOneRate);
+        System.out.printf("Creación en lote:   %.0f filas/s (x%.1f)%n", batchRate, batchRate / oneByOneRate);
+    }
+
+    private void insertOneByOne(int rows) {
+        for (int i = 0; i < rows; i++) {
+            assertNotNull(service.save(newOrder(i)).getId());
+        }
+    }
+
+    private void insertBatch(int rows) {
+        List<PurchaseOrder> orders = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            orders.add(newOrder(i));
+        }
+        for (int start = 0; start < rows; start += 5000) {
+            List<BatchItemResult> results = service.saveAll(orders.subList(start, Math.min(start + 5000, rows)));
+            assertTrue(results.stream().allMatch(BatchItemResult::isCreated));
+        }
+    }
+
+    private PurchaseOrder newOrder(int i) {
+        return new PurchaseOrder(null, "Proveedor " + i, new BigDecimal("100.50").add(BigDecimal.valueOf(i)),
+                i % 2 == 0 ? Currency.USD : Currency.EUR, LocalDate.now().plusDays(30));
+    }
+}
@@ -0,0 +1,110 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.exceptions.EntityNotFoundException;
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la eliminación masiva por ids y por filtro
+ */
+@SpringBootTest(properties = "app.bulk-delete.chunk-size=3")
+@ActiveProfiles("h2")
+public class PurchaseOrderBulkDeleteTest {
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Autowired
+    private PurchaseOrderStats stats;
+
+    @Autowired
+    private TrigramSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        repository.findAll().forEach(order -> service.deleteById(order.getId()));
+    }
+
+    @Test
+    public void testDeleteByIdsIgnoresMissingIds() {
+        List<PurchaseOrder> orders = create(5, OrderStatus.DRAFT, "Bulk Ids");
+        service.findById(orders.get(0).getId());
+
+        List<Long> ids = new ArrayList<>(List.of(orders.get(0).getId(), orders.get(1).getId(),
+                orders.get(2).getId(), orders.get(3).getId(), orders.get(0).getId(), 999_999L));
+
+        assertEquals(4, service.deleteAll(ids, PurchaseOrderFilter.none()));
+        assertEquals(1, repository.count());
+        assertThrows(EntityNotFoundException.class, () -> service.findById(orders.get(0).getId()));
+        assertEquals(1L, total().get("count"));
+    }
+
+    @Test
+    public void testDeleteByFilterRunsAcrossChunks() {
+        create(7, OrderStatus.CANCELLED, "Bulk Cancelada");
+        create(2, OrderStatus.APPROVED, "Bulk Aprobada");
+        PurchaseOrderFilter cancelled = service.buildFilter(null, "CANCELLED", null, null, null, null, null);
+
+        assertEquals(7, service.findAllWithFilters(cancelled).size());
+        assertEquals(7, service.deleteAll(null, cancelled));
+
+        assertEquals(2, repository.count());
+        assertTrue(service.findAllWithFilters(cancelled).isEmpty());
+        assertEquals(2L, total().get("count"));
+        assertEquals(0, searchIndex.search("Bulk Cancelada").length);
+    }
+
+    @Test
+    public void testDeleteByTextSearch() {
+        create(4, OrderStatus.DRAFT, "Bulk Texto");
+        create(1, OrderStatus.DRAFT, "Otro Proveedor");
+
+        PurchaseOrderFilter filter = service.buildFilter("bulk texto", null, null, null, null, null, null);
+        assertEquals(4, service.deleteAll(List.of(), filter));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    public void testRequiresEitherIdsOrFilter() {
+        PurchaseOrderFilter draft = service.buildFilter(null, "DRAFT", null, null, null, null, null);
+
+        assertThrows(ValidationException.class, () -> service.deleteAll(null, PurchaseOrderFilter.none()));
+        assertThrows(ValidationException.class, () -> service.deleteAll(List.of(1L), draft));
+    }
+
+    private List<PurchaseOrder> create(int count, OrderStatus status, String supplier) {
+        List<PurchaseOrder> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            PurchaseOrder order = new PurchaseOrder(null, supplier + " " + i, new BigDecimal("100.00"),
+                    Currency.USD, LocalDate.now().plusDays(30));
+            order.setStatus(status);
+            orders.add(service.save(order));
+        }
+        return orders;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> total() {
+        return (Map<String, Object>) stats.snapshot().get("total");
+    }
+}
@@ -0,0 +1,129 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.controllers.PurchaseOrderController;
+import ec.edu.espe.paredes_leccion2.exceptions.EntityNotFoundException;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché de órdenes por id
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class PurchaseOrderCacheTest {
+
+    @Autowired
+    private PurchaseOrderCache cache;
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Autowired
+    private PurchaseOrderController controller;
+
+    private PurchaseOrder order;
+
+    @BeforeEach
+    public void setUp() {
+        order = service.save(new PurchaseOrder(null, "Proveedor Caché", new BigDecimal("120.00"),
+                Currency.USD, LocalDate.now().plusDays(15)));
+    }
+
+    @Test
+    public void testConcurrentMissesLoadOnce() throws Exception {
+        cache.invalidate(order.getId());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PurchaseOrderRepository slow = Mockito.mock(PurchaseOrderRepository.class,
+                AdditionalAnswers.delegatesTo(repository));
+        Mockito.doAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return repository.findById(invocation.getArgument(0));
+        }).when(slow).findById(order.getId());
+
+        int readers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        ReflectionTestUtils.setField(cache, "repository", slow);
+        try {
+            List<Future<PurchaseOrder>> futures = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                futures.add(executor.submit(() -> cache.get(order.getId())));
+            }
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            // Da tiempo a que las demás lecturas lleguen mientras la carga está en curso
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<PurchaseOrder> future : futures) {
+                assertEquals("Proveedor Caché", future.get().getSupplierName());
+            }
+        } finally {
+            ReflectionTestUtils.setField(cache, "repository", repository);
+            executor.shutdown();
+        }
+        Mockito.verify(slow, Mockito.times(1)).findById(order.getId());
+    }
+
+    @Test
+    public void testUpdateAndDeleteInvalidateTheEntry() {
+        assertEquals("Proveedor Caché", service.findById(order.getId()).getSupplierName());
+
+        PurchaseOrder changed = new PurchaseOrder(order);
+        changed.setSupplierName("Proveedor Actualizado");
+        service.update(order.getId(), changed, null);
+        assertEquals("Proveedor Actualizado", service.findById(order.getId()).getSupplierName());
+
+        service.deleteById(order.getId());
+        assertThrows(EntityNotFoundException.class, () -> service.findById(order.getId()));
+    }
+
+    @Test
+    public void testCallersGetTheirOwnCopy() {
+        PurchaseOrder first = cache.get(order.getId());
+        first.setSupplierName("Modificado por el llamador");
+
+        assertEquals("Proveedor Caché", cache.get(order.getId()).getSupplierName());
+        assertEquals("Proveedor Caché", cache.getAll(List.of(order.getId())).get(order.getId()).getSupplierName());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testStatsEndpointCountsHitsAndMisses() {
+        cache.invalidate(order.getId());
+        Map<String, Object> before = (Map<String, Object>) controller.cacheStats().getBody().get("orders");
+
+        cache.get(order.getId());
+        cache.get(order.getId());
+        cache.get(order.getId());
+
+        Map<String, Object> after = (Map<String, Object>) controller.cacheStats().getBody().get("orders");
+        assertEquals(1L, (long) after.get("misses") - (long) before.get("misses"));
+        assertEquals(2L, (long) after.get("hits") - (long) before.get("hits"));
+        assertEquals(1L, (long) after.get("loads") - (long) before.get("loads"));
+    }
+}
@@ -0,0 +1,44 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del orden en que {@link PurchaseOrderService} notifica a los listeners
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+public class PurchaseOrderChangeListenerOrderTest {
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQueryCacheAndEventsRunAfterTheDerivedData() {
+        PurchaseOrderService target = AopTestUtils.getUltimateTargetObject(service);
+        List<PurchaseOrderChangeListener> listeners = (List<PurchaseOrderChangeListener>)
+                ReflectionTestUtils.getField(target, "changeListeners");
+        List<Class<?>> order = listeners.stream()
+                .<Class<?>>map(listener -> AopTestUtils.getUltimateTargetObject(listener).getClass())
+                .toList();
+
+        int queryCache = order.indexOf(PurchaseOrderQueryCache.class);
+        int events = order.indexOf(PurchaseOrderEventPublisher.class);
+        for (Class<?> derived : List.of(TrigramSearchIndex.class, PurchaseOrderColumnStore.class,
+                PurchaseOrderStats.class, PurchaseOrderCache.class)) {
+            int index = order.indexOf(derived);
+            assertTrue(index >= 0 && index < queryCache, derived.getSimpleName() + " en " + order);
+        }
+        assertEquals(order.size() - 1, events, order.toString());
+        assertTrue(queryCache < events, order.toString());
+    }
+}
@@ -0,0 +1,172 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del almacén columnar: sus resultados deben coincidir con aplicar el filtro fila por fila
+ */
+public class PurchaseOrderColumnStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private PurchaseOrderColumnStore store;
+    private List<PurchaseOrderSummary> rows;
+
+    @BeforeEach
+    public void setUp() {
+        store = new PurchaseOrderColumnStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "ready", true);
+        rows = new ArrayList<>();
+    }
+
+    @Test
+    public void testStructuredFiltersMatchRowByRowEvaluation() {
+        // Más de un segmento para recorrer en paralelo
+        Random random = new Random(7);
+        for (long id = 1; id <= 150_000; id++) {
+            add(row(id, OrderStatus.values()[random.nextInt(5)], Currency.values()[random.nextInt(2)],
+                    BigDecimal.valueOf(random.nextInt(100_000), 2), START.plusMinutes(random.nextInt(500_000))));
+        }
+
+        assertMatches(filter(OrderStatus.APPROVED, null, null, null, null, null));
+        assertMatches(filter(OrderStatus.DRAFT, Currency.EUR, null, null, null, null));
+        assertMatches(filter(null, Currency.USD, "100.005", "250.50", null, null));
+        assertMatches(filter(OrderStatus.SUBMITTED, null, null, null, START.plusDays(30), START.plusDays(60)));
+        assertMatches(filter(null, null, "999", "1", null, null));
+        assertMatches(PurchaseOrderFilter.none());
+    }
+
+    @Test
+    public void testUpdatesDeletesAndCompactionKeepResultsConsistent() {
+        for (long id = 3000; id >= 1; id--) {
+            add(row(id, OrderStatus.DRAFT, Currency.USD, new BigDecimal("10.00"), START.plusHours(id)));
+        }
+        for (long id = 1; id <= 3000; id += 3) {
+            replace(row(id, OrderStatus.APPROVED, Currency.EUR, new BigDecimal("20.00"), START.plusHours(id)));
+        }
+        for (long id = 1; id <= 2400; id++) {
+            if (id % 3 != 1) {
+                remove(id);
+            }
+        }
+
+        assertMatches(filter(OrderStatus.DRAFT, null, null, null, null, null));
+        assertMatches(filter(OrderStatus.APPROVED, Currency.EUR, "15", null, null, null));
+        assertMatches(filter(null, Currency.USD, null, "10", null, null));
+        assertTrue((int) store.stats().get("slots") < 3000, "Los arreglos deben compactarse");
+    }
+
+    @Test
+    public void testCandidateIdsRestrictTheResult() {
+        add(row(1L, OrderStatus.DRAFT, Currency.USD, new BigDecimal("10.00"), START));
+        add(row(2L, OrderStatus.APPROVED, Currency.USD, new BigDecimal("20.00"), START));
+        add(row(3L, OrderStatus.DRAFT, Currency.EUR, new BigDecimal("30.00"), START));
+
+        PurchaseOrderFilter draft = new PurchaseOrderFilter("acme", OrderStatus.DRAFT, null, null, null, null, null);
+        assertEquals(List.of(1L, 3L), ids(store.find(draft, List.of(1L, 2L, 3L, 99L))));
+        assertNull(store.find(draft, null));
+
+        ReflectionTestUtils.setField(store, "ready", false);
+        assertNull(store.find(PurchaseOrderFilter.none(), null));
+    }
+
+    @Test
+    public void testOutOfOrderWritesAreIgnored() {
+        store.put(row(1L, OrderStatus.APPROVED, Currency.USD, new BigDecimal("20.00"), START), 2);
+        store.put(row(1L, OrderStatus.DRAFT, Currency.USD, new BigDecimal("10.00"), START), 1);
+        assertEquals(OrderStatus.APPROVED, store.find(PurchaseOrderFilter.none(), null).get(0).status());
+
+        // Una actualización que llega después de la eliminación no revive la orden
+        store.remove(1L);
+        store.put(row(1L, OrderStatus.APPROVED, Currency.USD, new BigDecimal("20.00"), START), 3);
+        assertEquals(List.of(), store.find(PurchaseOrderFilter.none(), null));
+    }
+
+    @Test
+    public void testUnsupportedAmountOnlyPausesTheStoreUntilFixed() {
+        store.put(row(1L, OrderStatus.DRAFT, Currency.USD, new BigDecimal("10.00"), START), 0);
+        store.put(row(1L, OrderStatus.DRAFT, Currency.USD, new BigDecimal("10.001"), START), 1);
+        assertFalse(store.isReady());
+        assertNull(store.find(PurchaseOrderFilter.none(), null));
+
+        // Una notificación atrasada con un monto válido no reanuda el almacén
+        store.put(row(1L, OrderStatus.DRAFT, Currency.USD, new BigDecimal("10.00"), START), 0);
+        assertFalse(store.isReady());
+
+        store.put(row(1L, OrderStatus.DRAFT, Currency.USD, new BigDecimal("10.01"), START), 2);
+        assertTrue(store.isReady());
+        assertEquals(new BigDecimal("10.01"), store.find(PurchaseOrderFilter.none(), null).get(0).totalAmount());
+
+        store.put(row(2L, OrderStatus.DRAFT, Currency.USD, new BigDecimal("1E+30"), START), 0);
+        assertFalse(store.isReady());
+        store.remove(2L);
+        assertTrue(store.isReady());
+    }
+
+    private void assertMatches(PurchaseOrderFilter filter) {
+        List<Long> expected = rows.stream()
+                .filter(row -> matches(row, filter))
+                .map(PurchaseOrderSummary::id)
+                .sorted()
+                .toList();
+        assertEquals(expected, ids(store.find(filter, null)), filter.toString());
+    }
+
+    private boolean matches(PurchaseOrderSummary row, PurchaseOrderFilter filter) {
+        return (filter.status() == null || row.status() == filter.status())
+                && (filter.currency() == null || row.currency() == filter.currency())
+                && (filter.minTotal() == null || row.totalAmount().compareTo(filter.minTotal()) >= 0)
+                && (filter.maxTotal() == null || row.totalAmount().compareTo(filter.maxTotal()) <= 0)
+                && (filter.from() == null || !row.createdAt().isBefore(filter.from()))
+                && (filter.to() == null || !row.createdAt().isAfter(filter.to()));
+    }
+
+    private void add(PurchaseOrderSummary row) {
+        store.put(row, 0);
+        rows.add(row);
+    }
+
+    private void replace(PurchaseOrderSummary row) {
+        store.put(row, 1);
+        rows.replaceAll(existing -> existing.id().equals(row.id()) ? row : existing);
+    }
+
+    private void remove(long id) {
+        store.remove(id);
+        rows.removeIf(row -> row.id() == id);
+    }
+
+    private List<Long> ids(List<PurchaseOrderSummary> result) {
+        return result.stream().map(PurchaseOrderSummary::id).toList();
+    }
+
+    private PurchaseOrderFilter filter(OrderStatus status, Currency currency, String minTotal, String maxTotal,
+                                       LocalDateTime from, LocalDateTime to) {
+        return new PurchaseOrderFilter(null, status, currency,
+                minTotal == null ? null : new BigDecimal(minTotal),
+                maxTotal == null ? null : new BigDecimal(maxTotal), from, to);
+    }
+
+    private PurchaseOrderSummary row(Long id, OrderStatus status, Currency currency, BigDecimal amount,
+                                     LocalDateTime createdAt) {
+        return new PurchaseOrderSummary(id, String.format("PO-2025-%06d", id), "Proveedor " + id, status,
+                amount, currency, createdAt, LocalDate.of(2030, 1, 1));
+    }
+}
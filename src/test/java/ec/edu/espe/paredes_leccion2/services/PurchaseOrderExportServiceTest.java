@@ -0,0 +1,136 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.ExportFormat;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la exportación en streaming (CSV y NDJSON)
+ */
+@SpringBootTest(properties = "app.export.fetch-size=2")
+@ActiveProfiles("h2")
+public class PurchaseOrderExportServiceTest {
+
+    // Solo las órdenes de esta prueba contienen este texto
+    private static final String MARKER = "ExportMarker";
+
+    @Autowired
+    private PurchaseOrderExportService exportService;
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<PurchaseOrder> orders;
+
+    @BeforeEach
+    public void setUp() {
+        orders = List.of(
+                save(MARKER + " Simple", OrderStatus.DRAFT, "10.50"),
+                save(MARKER + ", \"Comillas\" S.A.", OrderStatus.APPROVED, "2000"),
+                save(MARKER + "\nMultilínea", OrderStatus.SUBMITTED, "0.01"),
+                save(MARKER + " Ñandú", OrderStatus.DRAFT, "99.99"));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        orders.forEach(order -> service.deleteById(order.getId()));
+    }
+
+    @Test
+    public void testCsvRowsAreEscapedAndReadBack() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(filter(), ExportFormat.CSV, out);
+        String csv = out.toString(StandardCharsets.UTF_8);
+
+        assertEquals(orders.size(), rows);
+        assertTrue(csv.contains("\"" + MARKER + ", \"\"Comillas\"\" S.A.\""), csv);
+        assertTrue(csv.contains("\"" + MARKER + "\nMultilínea\""), csv);
+        assertTrue(csv.contains("," + MARKER + " Simple,"), csv);
+
+        // La salida se vuelve a leer con el lector de la importación
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        assertEquals(List.of("id", "orderNumber", "supplierName", "status", "totalAmount", "currency",
+                "createdAt", "expectedDeliveryDate"), reader.next());
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        assertEquals(orders.size(), records.size());
+        for (int i = 0; i < orders.size(); i++) {
+            PurchaseOrder order = orders.get(i);
+            List<String> fields = records.get(i);
+            assertEquals(String.valueOf(order.getId()), fields.get(0));
+            assertEquals(order.getOrderNumber(), fields.get(1));
+            assertEquals(order.getSupplierName(), fields.get(2));
+            assertEquals(order.getStatus().name(), fields.get(3));
+            assertEquals(0, order.getTotalAmount().compareTo(new BigDecimal(fields.get(4))));
+            assertEquals(order.getExpectedDeliveryDate().toString(), fields.get(7));
+        }
+    }
+
+    @Test
+    public void testNdjsonWritesOneOrderPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(filter(), ExportFormat.NDJSON, out);
+        String ndjson = out.toString(StandardCharsets.UTF_8);
+
+        assertEquals(orders.size(), rows);
+        assertTrue(ndjson.endsWith("\n"));
+        String[] lines = ndjson.split("\n");
+        assertEquals(orders.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            Map<?, ?> json = objectMapper.readValue(lines[i], Map.class);
+            assertEquals(orders.get(i).getId(), ((Number) json.get("id")).longValue());
+            assertEquals(orders.get(i).getSupplierName(), json.get("supplierName"));
+        }
+    }
+
+    @Test
+    public void testEmptyResultAndUnknownFormat() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PurchaseOrderFilter none = new PurchaseOrderFilter("sin-coincidencias-" + MARKER, null, null,
+                null, null, null, null);
+
+        assertEquals(0, exportService.export(none, ExportFormat.CSV, out));
+        assertEquals("id,orderNumber,supplierName,status,totalAmount,currency,createdAt,expectedDeliveryDate\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertEquals(ExportFormat.NDJSON, exportService.parseFormat(null));
+        assertThrows(ValidationException.class, () -> exportService.parseFormat("xml"));
+    }
+
+    private PurchaseOrderFilter filter() {
+        return new PurchaseOrderFilter(MARKER, null, Currency.EUR, null, null, null, null);
+    }
+
+    private PurchaseOrder save(String supplier, OrderStatus status, String amount) {
+        PurchaseOrder order = new PurchaseOrder(null, supplier, new BigDecimal(amount),
+                Currency.EUR, LocalDate.now().plusDays(20));
+        order.setStatus(status);
+        return service.save(order);
+    }
+}
@@ -0,0 +1,171 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.exceptions.ServiceUnavailableException;
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.BatchItemResult;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la importación CSV en segundo plano
+ */
+@SpringBootTest(properties = {
+        "app.import.batch-size=2",
+        "app.import.queue-capacity=1",
+        "app.import.max-concurrent=1",
+        "app.import.max-queued=1",
+        "app.import.directory=target/import-test"
+})
+@ActiveProfiles("h2")
+public class PurchaseOrderImportServiceTest {
+
+    @Autowired
+    private PurchaseOrderImportService importService;
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        repository.findAll().forEach(order -> service.deleteById(order.getId()));
+        awaitFreeSlots();
+    }
+
+    @Test
+    public void testCsvReaderHandlesQuotedFields() throws Exception {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "a,\"b, \"\"c\"\"\",d\r\n\"línea\nnueva\",,x\n"));
+
+        assertEquals(List.of("a", "b, \"c\"", "d"), reader.next());
+        assertEquals(1, reader.recordLine());
+        assertEquals(List.of("línea\nnueva", "", "x"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    public void testImportCreatesValidRowsAndReportsRowErrors() throws Exception {
+        String future = LocalDate.now().plusDays(10).toString();
+        String csv = "id,orderNumber,supplierName,status,totalAmount,currency,createdAt,expectedDeliveryDate\n"
+                + "1,PO-2025-900001,\"Proveedor, Uno\",APPROVED,100.50,USD,2025-01-10T08:00:00," + future + "\n"
+                + "2,,Proveedor Dos,,20,eur,," + future + "\n"
+                + "\n"
+                + "3,,Proveedor Tres,,abc,GBP,," + future + "\n"
+                + "4,,Proveedor Cuatro,,10,USD,,2020-01-01\n"
+                + "5,PO-2025-900001,Proveedor Repetido,,10,USD,," + future + "\n"
+                + "6,,\"Proveedor\nMultilínea\",DRAFT,5,USD,," + future + "\n";
+
+        PurchaseOrderImportJob job = importService.importUpload(new MockMultipartFile(
+                "file", "orders.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+        Map<String, Object> result = awaitFinished(job);
+
+        assertEquals(PurchaseOrderImportJob.Status.COMPLETED, result.get("status"));
+        assertEquals(6L, result.get("rowsRead"));
+        assertEquals(3L, result.get("created"));
+        assertEquals(3L, result.get("failed"));
+        assertEquals((long) csv.getBytes(StandardCharsets.UTF_8).length, result.get("bytesRead"));
+
+        @SuppressWarnings("unchecked")
+        List<BatchItemResult> errors = (List<BatchItemResult>) result.get("errors");
+        assertEquals(List.of(5, 6, 7), errors.stream().map(BatchItemResult::index).sorted().toList());
+        BatchItemResult invalidValues = errors.stream().filter(e -> e.index() == 5).findFirst().orElseThrow();
+        assertEquals(2, invalidValues.errors().size());
+
+        PurchaseOrder first = repository.findAll().stream()
+                .filter(order -> "PO-2025-900001".equals(order.getOrderNumber())).findFirst().orElseThrow();
+        assertEquals("Proveedor, Uno", first.getSupplierName());
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    public void testImportFailsWhenRequiredColumnIsMissing() throws Exception {
+        PurchaseOrderImportJob job = importService.importUpload(new MockMultipartFile(
+                "file", "orders.csv", "text/csv", "supplierName,totalAmount\nProveedor,10\n".getBytes()));
+        Map<String, Object> result = awaitFinished(job);
+
+        assertEquals(PurchaseOrderImportJob.Status.FAILED, result.get("status"));
+        assertTrue(result.get("message").toString().contains("currency"));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    public void testServerPathMustStayInsideImportDirectory() {
+        assertThrows(ValidationException.class, () -> importService.importFile("../pom.xml"));
+    }
+
+    @Test
+    public void testSubmissionsBeyondTheQueueAreRejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PurchaseOrderService blocking = Mockito.mock(PurchaseOrderService.class, AdditionalAnswers.delegatesTo(service));
+        Mockito.doAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return service.saveAll(invocation.getArgument(0));
+        }).when(blocking).saveAll(Mockito.anyList());
+
+        ReflectionTestUtils.setField(importService, "purchaseOrderService", blocking);
+        try {
+            // Una importación en curso (bloqueada en el escritor) y otra en espera
+            PurchaseOrderImportJob running = importService.importUpload(upload("Proveedor Uno"));
+            PurchaseOrderImportJob queued = importService.importUpload(upload("Proveedor Dos"));
+            assertThrows(ServiceUnavailableException.class, () -> importService.importUpload(upload("Proveedor Tres")));
+
+            release.countDown();
+            assertEquals(PurchaseOrderImportJob.Status.COMPLETED, awaitFinished(running).get("status"));
+            assertEquals(PurchaseOrderImportJob.Status.COMPLETED, awaitFinished(queued).get("status"));
+        } finally {
+            release.countDown();
+            ReflectionTestUtils.setField(importService, "purchaseOrderService", service);
+        }
+
+        awaitFreeSlots();
+        PurchaseOrderImportJob again = importService.importUpload(upload("Proveedor Cuatro"));
+        assertEquals(PurchaseOrderImportJob.Status.COMPLETED, awaitFinished(again).get("status"));
+        assertEquals(3, repository.count());
+    }
+
+    private MockMultipartFile upload(String supplier) {
+        String csv = "supplierName,totalAmount,currency,expectedDeliveryDate\n"
+                + supplier + ",10,USD," + LocalDate.now().plusDays(10) + "\n";
+        return new MockMultipartFile("file", "orders.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // El lugar se libera justo después de que la importación termina
+    private void awaitFreeSlots() throws InterruptedException {
+        Semaphore slots = (Semaphore) ReflectionTestUtils.getField(importService, "slots");
+        for (int i = 0; i < 100 && slots.availablePermits() < 2; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, slots.availablePermits());
+    }
+
+    private Map<String, Object> awaitFinished(PurchaseOrderImportJob job) throws InterruptedException {
+        for (int i = 0; i < 200 && !job.isFinished(); i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(job.isFinished(), "La importación no terminó a tiempo");
+        return job.snapshot();
+    }
+}
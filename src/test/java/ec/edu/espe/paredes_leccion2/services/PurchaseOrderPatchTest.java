@@ -0,0 +1,147 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.exceptions.EntityNotFoundException;
+import ec.edu.espe.paredes_leccion2.exceptions.PreconditionFailedException;
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderPatch;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la actualización parcial (PATCH) de órdenes
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ec.edu.espe.paredes_leccion2.services.PurchaseOrderPatchTest$SqlCapture")
+@ActiveProfiles("h2")
+public class PurchaseOrderPatchTest {
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    private PurchaseOrder order;
+
+    @BeforeEach
+    public void setUp() {
+        order = service.save(new PurchaseOrder(null, "Proveedor Patch", new BigDecimal("250.00"),
+                Currency.USD, LocalDate.now().plusDays(30)));
+    }
+
+    @Test
+    public void testStatusChangeIsASingleUpdateStatement() {
+        service.findById(order.getId());
+
+        SqlCapture.clear();
+        PurchaseOrder patched = service.patch(order.getId(), status("SUBMITTED"), order.getVersion());
+
+        List<String> statements = SqlCapture.statements();
+        assertEquals(1, statements.size(), statements.toString());
+        assertTrue(statements.get(0).startsWith("update"), statements.get(0));
+        assertTrue(statements.get(0).contains("version"), statements.get(0));
+
+        PurchaseOrder stored = repository.findById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.SUBMITTED, stored.getStatus());
+        assertEquals("Proveedor Patch", stored.getSupplierName());
+        assertEquals(order.getVersion() + 1, stored.getVersion());
+        assertEquals(stored.getVersion(), patched.getVersion());
+        assertEquals(OrderStatus.SUBMITTED, service.findById(order.getId()).getStatus());
+    }
+
+    @Test
+    public void testStaleVersionIsRejected() {
+        service.patch(order.getId(), status("SUBMITTED"), null);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> service.patch(order.getId(), status("APPROVED"), order.getVersion()));
+        assertEquals(OrderStatus.SUBMITTED, repository.findById(order.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testStaleCacheIsRefreshedWhenNoVersionIsSent() {
+        service.findById(order.getId());
+        // Otra instancia modifica la orden sin pasar por esta caché
+        PurchaseOrder other = repository.findById(order.getId()).orElseThrow();
+        other.setSupplierName("Proveedor Externo");
+        repository.saveAndFlush(other);
+
+        PurchaseOrder patched = service.patch(order.getId(), status("SUBMITTED"), null);
+        assertEquals(order.getVersion() + 2, patched.getVersion());
+        assertEquals("Proveedor Externo", patched.getSupplierName());
+        assertEquals(OrderStatus.SUBMITTED, repository.findById(order.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testRowDeletedSinceCachedIsNotFound() {
+        service.findById(order.getId());
+        repository.deleteById(order.getId());
+
+        assertThrows(EntityNotFoundException.class,
+                () -> service.patch(order.getId(), status("SUBMITTED"), order.getVersion()));
+        assertThrows(EntityNotFoundException.class, () -> service.findById(order.getId()));
+    }
+
+    @Test
+    public void testOnlyPresentFieldsAreValidated() {
+        assertThrows(ValidationException.class, () -> service.patch(order.getId(),
+                new PurchaseOrderPatch(null, " ", null, null, null, null), null));
+        assertThrows(ValidationException.class, () -> service.patch(order.getId(),
+                new PurchaseOrderPatch(null, null, null, new BigDecimal("-1"), null, null), null));
+        assertThrows(ValidationException.class, () -> service.patch(order.getId(), status("SHIPPED"), null));
+        // DRAFT no puede pasar directamente a APPROVED
+        assertThrows(ValidationException.class, () -> service.patch(order.getId(), status("APPROVED"), null));
+        assertThrows(ValidationException.class, () -> service.patch(order.getId(),
+                new PurchaseOrderPatch(null, null, null, null, null, null), null));
+
+        PurchaseOrder patched = service.patch(order.getId(),
+                new PurchaseOrderPatch(null, "Proveedor Nuevo", null, null, "eur", null), null);
+        assertEquals("Proveedor Nuevo", patched.getSupplierName());
+        assertEquals(Currency.EUR, patched.getCurrency());
+        assertEquals(new BigDecimal("250.00"), patched.getTotalAmount());
+    }
+
+    private PurchaseOrderPatch status(String status) {
+        return new PurchaseOrderPatch(null, null, status, null, null, null);
+    }
+
+    /**
+     * Guarda todas las sentencias emitidas por Hibernate
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        private static final List<String> statements = new ArrayList<>();
+
+        static synchronized void clear() {
+            statements.clear();
+        }
+
+        static synchronized List<String> statements() {
+            return List.copyOf(statements);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (SqlCapture.class) {
+                statements.add(sql.trim().toLowerCase(Locale.ROOT));
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderFilter;
+import ec.edu.espe.paredes_leccion2.models.dto.PurchaseOrderSummary;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de la caché versionada del listado filtrado
+ */
+public class PurchaseOrderQueryCacheTest {
+
+    private PurchaseOrderQueryCache queryCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        queryCache = new PurchaseOrderQueryCache();
+        ReflectionTestUtils.setField(queryCache, "maxRows", 1000L);
+        ReflectionTestUtils.setField(queryCache, "ttl", Duration.ofMinutes(1));
+        queryCache.init();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    public void testEquivalentFiltersShareEntry() {
+        query(new PurchaseOrderFilter("ACME", null, null, new BigDecimal("100.00"), null, null, null));
+        query(new PurchaseOrderFilter("acme", null, null, new BigDecimal("100"), null, null, null));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testWriteInvalidatesOnlyAffectedStatus() {
+        PurchaseOrderFilter approved = filterByStatus(OrderStatus.APPROVED);
+        PurchaseOrderFilter draft = filterByStatus(OrderStatus.DRAFT);
+        query(approved);
+        query(draft);
+        query(PurchaseOrderFilter.none());
+
+        queryCache.invalidate(OrderStatus.DRAFT);
+
+        query(approved);
+        assertEquals(3, loads.get());
+        query(draft);
+        query(PurchaseOrderFilter.none());
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    public void testInvalidateWithoutStatusesInvalidatesEverything() {
+        query(filterByStatus(OrderStatus.APPROVED));
+
+        queryCache.invalidate();
+
+        query(filterByStatus(OrderStatus.APPROVED));
+        assertEquals(2, loads.get());
+    }
+
+    private PurchaseOrderFilter filterByStatus(OrderStatus status) {
+        return new PurchaseOrderFilter(null, status, null, null, null, null, null);
+    }
+
+    private List<PurchaseOrderSummary> query(PurchaseOrderFilter filter) {
+        return queryCache.get(filter, () -> {
+            loads.incrementAndGet();
+            return List.of(PurchaseOrderSummary.from(new PurchaseOrder()));
+        });
+    }
+}
@@ -0,0 +1,91 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de los contadores agregados de órdenes
+ */
+public class PurchaseOrderStatsTest {
+
+    private PurchaseOrderStats stats;
+
+    @BeforeEach
+    public void setUp() {
+        stats = new PurchaseOrderStats();
+    }
+
+    @Test
+    public void testCreatedOrdersAreCountedAndSummedExactly() {
+        stats.onCreated(order(1L, OrderStatus.DRAFT, "0.10", Currency.USD, 2025, 1));
+        stats.onCreated(order(2L, OrderStatus.DRAFT, "0.20", Currency.USD, 2025, 1));
+        stats.onCreated(order(3L, OrderStatus.APPROVED, "5.00", Currency.EUR, 2025, 2));
+
+        assertEquals(3L, group("total").get("count"));
+        assertEquals(new BigDecimal("0.30"), amounts(group("total")).get("USD"));
+        assertEquals(new BigDecimal("5.00"), amounts(group("total")).get("EUR"));
+        assertEquals(2L, group("byStatus", "DRAFT").get("count"));
+        assertEquals(1L, group("byCurrency", "EUR").get("count"));
+        assertEquals(2L, group("byMonth", "2025-01").get("count"));
+    }
+
+    @Test
+    public void testUpdateMovesOrderBetweenGroups() {
+        PurchaseOrder before = order(1L, OrderStatus.DRAFT, "10.00", Currency.USD, 2025, 1);
+        stats.onCreated(before);
+
+        PurchaseOrder after = order(1L, OrderStatus.APPROVED, "12.50", Currency.EUR, 2025, 1);
+        stats.onUpdated(before, after);
+
+        assertEquals(1L, group("total").get("count"));
+        assertEquals(0L, group("byStatus", "DRAFT").get("count"));
+        assertEquals(1L, group("byStatus", "APPROVED").get("count"));
+        assertEquals(0L, group("byCurrency", "USD").get("count"));
+        assertNull(amounts(group("total")).get("USD"));
+        assertEquals(new BigDecimal("12.50"), amounts(group("byCurrency", "EUR")).get("EUR"));
+    }
+
+    @Test
+    public void testDeleteRemovesOrderFromAllGroups() {
+        PurchaseOrder order = order(1L, OrderStatus.SUBMITTED, "7.25", Currency.USD, 2024, 12);
+        stats.onCreated(order);
+        stats.onDeleted(order);
+
+        assertEquals(0L, group("total").get("count"));
+        assertEquals(0L, group("byStatus", "SUBMITTED").get("count"));
+        assertFalse(((Map<?, ?>) stats.snapshot().get("byMonth")).containsKey("2024-12"));
+    }
+
+    private PurchaseOrder order(Long id, OrderStatus status, String amount, Currency currency, int year, int month) {
+        PurchaseOrder order = new PurchaseOrder("PO-" + year + "-" + id, "Proveedor", new BigDecimal(amount),
+                currency, LocalDate.of(2030, 1, 1));
+        order.setId(id);
+        order.setStatus(status);
+        order.setCreatedAt(LocalDateTime.of(year, month, 15, 10, 0));
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> group(String... path) {
+        Map<String, Object> current = stats.snapshot();
+        for (String key : path) {
+            current = (Map<String, Object>) current.get(key);
+        }
+        return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> amounts(Map<String, Object> group) {
+        return (Map<String, Object>) group.get("totalAmount");
+    }
+}
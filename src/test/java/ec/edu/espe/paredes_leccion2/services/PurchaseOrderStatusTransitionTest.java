@@ -0,0 +1,174 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import ec.edu.espe.paredes_leccion2.exceptions.ValidationException;
+import ec.edu.espe.paredes_leccion2.models.dto.StatusTransitionResult;
+import ec.edu.espe.paredes_leccion2.models.entities.PurchaseOrder;
+import ec.edu.espe.paredes_leccion2.models.enums.Currency;
+import ec.edu.espe.paredes_leccion2.models.enums.OrderStatus;
+import ec.edu.espe.paredes_leccion2.repositories.PurchaseOrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del cambio de estado masivo y de las transiciones permitidas en PUT
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ec.edu.espe.paredes_leccion2.services.PurchaseOrderPatchTest$SqlCapture")
+@ActiveProfiles("h2")
+public class PurchaseOrderStatusTransitionTest {
+
+    @Autowired
+    private PurchaseOrderService service;
+
+    @Autowired
+    private PurchaseOrderRepository repository;
+
+    @Autowired
+    private PurchaseOrderStats stats;
+
+    @Test
+    public void testTransitionTableRejectsLeavingCancelled() {
+        assertTrue(OrderStatus.CANCELLED.allowedTransitions().isEmpty());
+        assertTrue(OrderStatus.SUBMITTED.canTransitionTo(OrderStatus.APPROVED));
+        assertFalse(OrderStatus.DRAFT.canTransitionTo(OrderStatus.APPROVED));
+        assertEquals(Set.of(OrderStatus.SUBMITTED), OrderStatus.APPROVED.allowedSources());
+    }
+
+    @Test
+    public void testValidTransitionsAreLockedAndUpdatedInOneStatement() {
+        PurchaseOrder first = create(OrderStatus.SUBMITTED);
+        PurchaseOrder second = create(OrderStatus.SUBMITTED);
+        PurchaseOrder draft = create(OrderStatus.DRAFT);
+        PurchaseOrder cancelled = create(OrderStatus.CANCELLED);
+        PurchaseOrder approved = create(OrderStatus.APPROVED);
+        List<Long> ids = List.of(first.getId(), draft.getId(), second.getId(), cancelled.getId(),
+                approved.getId(), 999_999L, first.getId());
+        ids.stream().filter(id -> id != 999_999L).forEach(service::findById);
+
+        PurchaseOrderPatchTest.SqlCapture.clear();
+        List<StatusTransitionResult> results = service.transitionStatus(ids, "approved");
+
+        // Una consulta para el id que no estaba en caché, un bloqueo de las filas válidas y un
+        // solo UPDATE para todas las transiciones
+        List<String> statements = PurchaseOrderPatchTest.SqlCapture.statements();
+        assertEquals(3, statements.size(), statements.toString());
+        assertTrue(statements.get(0).startsWith("select"), statements.get(0));
+        assertTrue(statements.get(1).startsWith("select") && statements.get(1).contains("for update"),
+                statements.get(1));
+        assertTrue(statements.get(2).startsWith("update"), statements.get(2));
+        assertTrue(statements.get(2).contains(" in "), statements.get(2));
+
+        assertEquals(List.of("TRANSITIONED", "INVALID_TRANSITION", "TRANSITIONED", "INVALID_TRANSITION",
+                        "UNCHANGED", "NOT_FOUND"),
+                results.stream().map(StatusTransitionResult::outcome).toList());
+        assertEquals(OrderStatus.SUBMITTED, results.get(0).from());
+
+        PurchaseOrder stored = repository.findById(first.getId()).orElseThrow();
+        assertEquals(OrderStatus.APPROVED, stored.getStatus());
+        assertEquals(first.getVersion() + 1, stored.getVersion());
+        assertEquals(OrderStatus.APPROVED, service.findById(second.getId()).getStatus());
+        assertEquals(OrderStatus.CANCELLED, repository.findById(cancelled.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testOrderChangedSinceCachedIsReportedAsConflict() {
+        PurchaseOrder stale = create(OrderStatus.SUBMITTED);
+        PurchaseOrder fresh = create(OrderStatus.SUBMITTED);
+        service.findById(stale.getId());
+        service.findById(fresh.getId());
+
+        // Cambio hecho fuera del servicio (como otra instancia): la caché sigue en SUBMITTED
+        PurchaseOrder row = repository.findById(stale.getId()).orElseThrow();
+        row.setStatus(OrderStatus.CANCELLED);
+        repository.save(row);
+
+        List<StatusTransitionResult> results = service.transitionStatus(
+                List.of(stale.getId(), fresh.getId()), "REJECTED");
+
+        assertEquals(StatusTransitionResult.CONFLICT, results.get(0).outcome());
+        assertEquals(OrderStatus.CANCELLED, results.get(0).to());
+        assertEquals(StatusTransitionResult.TRANSITIONED, results.get(1).outcome());
+        assertEquals(OrderStatus.REJECTED, service.findById(fresh.getId()).getStatus());
+        assertEquals(OrderStatus.CANCELLED, repository.findById(stale.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    public void testOnlyRowsChangedByThisCallAreNotified() {
+        PurchaseOrder alreadyMoved = create(OrderStatus.SUBMITTED);
+        PurchaseOrder moved = create(OrderStatus.DRAFT);
+        service.findById(alreadyMoved.getId());
+        service.findById(moved.getId());
+
+        // Otras instancias ya cancelaron una y enviaron la otra (y notificaron allí sus cambios)
+        PurchaseOrder row = repository.findById(alreadyMoved.getId()).orElseThrow();
+        row.setStatus(OrderStatus.CANCELLED);
+        repository.save(row);
+        row = repository.findById(moved.getId()).orElseThrow();
+        row.setStatus(OrderStatus.SUBMITTED);
+        repository.save(row);
+
+        long draft = statusCount(OrderStatus.DRAFT);
+        long cancelled = statusCount(OrderStatus.CANCELLED);
+
+        List<StatusTransitionResult> results = service.transitionStatus(
+                List.of(alreadyMoved.getId(), moved.getId()), "CANCELLED");
+
+        assertEquals(StatusTransitionResult.UNCHANGED, results.get(0).outcome());
+        assertEquals(StatusTransitionResult.TRANSITIONED, results.get(1).outcome());
+        // El estado de origen es el de la fila bloqueada, no el de la caché (DRAFT)
+        assertEquals(OrderStatus.SUBMITTED, results.get(1).from());
+        // Las estadísticas solo reciben el cambio hecho por esta llamada, desde SUBMITTED
+        assertEquals(cancelled + 1, statusCount(OrderStatus.CANCELLED));
+        assertEquals(draft, statusCount(OrderStatus.DRAFT));
+        assertEquals(OrderStatus.CANCELLED, service.findById(alreadyMoved.getId()).getStatus());
+    }
+
+    @Test
+    public void testPutAppliesTheSameTransitionTable() {
+        PurchaseOrder cancelled = create(OrderStatus.CANCELLED);
+        PurchaseOrder reopened = new PurchaseOrder(cancelled);
+        reopened.setStatus(OrderStatus.APPROVED);
+        assertThrows(ValidationException.class, () -> service.update(cancelled.getId(), reopened, null));
+        assertEquals(OrderStatus.CANCELLED, repository.findById(cancelled.getId()).orElseThrow().getStatus());
+
+        // Sin cambio de estado se actualizan los demás campos
+        PurchaseOrder renamed = new PurchaseOrder(cancelled);
+        renamed.setSupplierName("Proveedor Renombrado");
+        assertEquals("Proveedor Renombrado", service.update(cancelled.getId(), renamed, null).getSupplierName());
+
+        PurchaseOrder submitted = create(OrderStatus.SUBMITTED);
+        PurchaseOrder approved = new PurchaseOrder(submitted);
+        approved.setStatus(OrderStatus.APPROVED);
+        assertEquals(OrderStatus.APPROVED, service.update(submitted.getId(), approved, null).getStatus());
+    }
+
+    @Test
+    public void testRequiresIdsAndValidStatus() {
+        assertThrows(ValidationException.class, () -> service.transitionStatus(List.of(), "APPROVED"));
+        assertThrows(ValidationException.class, () -> service.transitionStatus(List.of(1L), null));
+        assertThrows(ValidationException.class, () -> service.transitionStatus(List.of(1L), "ARCHIVED"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private long statusCount(OrderStatus status) {
+        Map<String, Map<String, Object>> byStatus = (Map<String, Map<String, Object>>) stats.snapshot().get("byStatus");
+        return (Long) byStatus.get(status.name()).get("count");
+    }
+
+    private PurchaseOrder create(OrderStatus status) {
+        PurchaseOrder order = new PurchaseOrder(null, "Proveedor Transición", new BigDecimal("75.00"),
+                Currency.USD, LocalDate.now().plusDays(20));
+        order.setStatus(status);
+        return service.save(order);
+    }
+}
@@ -0,0 +1,60 @@
+package ec.edu.espe.paredes_leccion2.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas del índice de trigramas usado por la búsqueda de texto
+ */
+public class TrigramSearchIndexTest {
+
+    private TrigramSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new TrigramSearchIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "ready", true);
+        ReflectionTestUtils.setField(index, "maxCandidates", 100);
+
+        index.index(1L, "PO-2025-000001", "ACME Tools Inc.");
+        index.index(2L, "PO-2025-000002", "Global Supplies Ltd.");
+        index.index(3L, "PO-2025-000003", "Acmé Electronics");
+    }
+
+    @Test
+    public void testSearchIsCaseAndAccentInsensitive() {
+        assertArrayEquals(new long[]{1L, 3L}, index.search("acme"));
+        assertArrayEquals(new long[]{2L}, index.search("SUPPLIES"));
+        assertArrayEquals(new long[]{3L}, index.search("000003"));
+    }
+
+    @Test
+    public void testSearchDiscardsNonContiguousMatches() {
+        // "too" y "ols" existen en "tools" pero "toolsx" no
+        assertArrayEquals(new long[0], index.search("toolsx"));
+        assertArrayEquals(new long[0], index.search("ltd inc"));
+    }
+
+    @Test
+    public void testUpdateAndRemoveKeepIndexConsistent() {
+        index.index(1L, "PO-2025-000001", "Nuevo Proveedor");
+        assertArrayEquals(new long[]{3L}, index.search("acme"));
+        assertArrayEquals(new long[]{1L}, index.search("proveedor"));
+
+        index.remove(3L);
+        assertArrayEquals(new long[0], index.search("acme"));
+    }
+
+    @Test
+    public void testFallsBackWhenIndexCannotAnswer() {
+        assertNull(index.search("po"));
+        assertNull(index.search("PO-2025_0"));
+
+        ReflectionTestUtils.setField(index, "maxCandidates", 1);
+        assertNull(index.search("po-2025"));
+    }
+}
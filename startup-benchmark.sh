@@ -0,0 +1,78 @@
+#!/bin/bash
+# Benchmark de arranque: tiempo hasta la primera respuesta 200 de /health y memoria residente (RSS)
+# en ese momento, para el jar normal, el jar con Spring AOT, AOT + AppCDS y el ejecutable nativo.
+#
+# Uso: ./mvnw -Paot package -DskipTests && ./startup-benchmark.sh [ejecuciones]
+#      (el modo native se incluye si existe target/paredes_leccion2: ./mvnw -Pnative native:compile)
+#
+# Por defecto usa el perfil training, que no necesita MySQL; con la base levantada se puede medir
+# el arranque completo con SPRING_PROFILES_ACTIVE=default (o docker y sus variables DB_*).
+
+RUNS=${1:-5}
+JAVA=${JAVA:-java}
+PORT=${PORT:-8080}
+PROFILES=${SPRING_PROFILES_ACTIVE:-training}
+JAVA_OPTS=${JAVA_OPTS:-"-Xms256m -Xmx512m"}
+JAR=paredes_leccion2-0.0.1-SNAPSHOT.jar
+WORK=$(pwd)/target/startup-benchmark
+HEALTH_URL="http://localhost:$PORT/api/v1/purchase-orders/health"
+
+if [ ! -d target/spring-aot ]; then
+    echo "No se encontró el procesamiento AOT: ejecute primero ./mvnw -Paot package -DskipTests"
+    exit 1
+fi
+
+echo "=== Preparando jar extraído y archivo AppCDS ==="
+rm -rf "$WORK"
+$JAVA -Djarmode=tools -jar "target/$JAR" extract --destination "$WORK" || exit 1
+# Ejecución de entrenamiento: inicia el contexto, guarda las clases cargadas y termina
+# (el archivo solo se usa si el jar está en la misma ruta al arrancar)
+$JAVA $JAVA_OPTS -XX:ArchiveClassesAtExit="$WORK/application.jsa" -Xlog:cds=off -Xlog:cds+dynamic=off \
+    -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh -Dspring.profiles.active=training \
+    -jar "$WORK/$JAR" > "$WORK/training.log" 2>&1 || { echo "Falló la ejecución de entrenamiento: $WORK/training.log"; exit 1; }
+
+# Arranca el comando, espera la primera respuesta 200 de /health e imprime "milisegundos rss_kb"
+measure() {
+    local start pid elapsed rss
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" --spring.profiles.active="$PROFILES" > "$WORK/run.log" 2>&1 &
+    pid=$!
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$HEALTH_URL")" = "200" ]; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "El proceso terminó antes de responder: $WORK/run.log" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null
+    echo "$elapsed $rss"
+}
+
+run_mode() {
+    local name=$1 total_ms=0 total_rss=0 min_ms= result ms rss
+    shift
+    for ((i = 1; i <= RUNS; i++)); do
+        result=$(measure "$@") || exit 1
+        read -r ms rss <<< "$result"
+        total_ms=$((total_ms + ms))
+        total_rss=$((total_rss + rss))
+        if [ -z "$min_ms" ] || [ "$ms" -lt "$min_ms" ]; then
+            min_ms=$ms
+        fi
+    done
+    printf "%-10s %10d %10d %12d\n" "$name" "$((total_ms / RUNS))" "$min_ms" "$((total_rss / RUNS / 1024))"
+}
+
+echo ""
+echo "=== Arranque hasta /health ($RUNS ejecuciones, perfil $PROFILES) ==="
+printf "%-10s %10s %10s %12s\n" "modo" "prom. ms" "mín. ms" "RSS MB"
+run_mode jar $JAVA $JAVA_OPTS -jar "$WORK/$JAR"
+run_mode aot $JAVA $JAVA_OPTS -Dspring.aot.enabled=true -jar "$WORK/$JAR"
+run_mode aot+cds $JAVA $JAVA_OPTS -XX:SharedArchiveFile="$WORK/application.jsa" -Xlog:cds=off \
+    -Dspring.aot.enabled=true -jar "$WORK/$JAR"
+if [ -x target/paredes_leccion2 ]; then
+    run_mode native target/paredes_leccion2 $JAVA_OPTS
+fi